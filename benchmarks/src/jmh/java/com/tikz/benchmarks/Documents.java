@@ -0,0 +1,143 @@
+package com.tikz.benchmarks;
+
+import com.tikz.ColorHolder;
+import com.tikz.grid.DrawType;
+import com.tikz.grid.TikType;
+import com.tikz.grid.Vec2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible documents for the benchmarks. The same size, mix and seed always give the same shapes.
+ */
+public final class Documents {
+    public static final long SEED = 0x7153L;
+
+    /** Which shapes a generated document contains */
+    public enum Mix {
+        LINES,
+        POLYGONS,
+        CURVES,
+        TEXT,
+        MIXED
+    }
+
+    private Documents() {
+    }
+
+    public static List<TikType> generate(int size, Mix mix) {
+        Random random = new Random(SEED);
+        List<TikType> shapes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DrawType type = pickType(random, mix);
+            TikType tik;
+            switch (type) {
+                case LINE:
+                    tik = new TikType(point(random), point(random), DrawType.LINE);
+                    break;
+                case CIRCLE:
+                    Vec2 origin = point(random);
+                    tik = new TikType(origin, origin.cpy().add(snap(0.1f + random.nextFloat() * 3), 0), DrawType.CIRCLE);
+                    tik.isFilled = random.nextInt(4) == 0;
+                    break;
+                case MULTI_LINE:
+                    tik = new TikType(polygon(random, 3 + random.nextInt(10)), DrawType.MULTI_LINE);
+                    tik.isFilled = random.nextBoolean();
+                    break;
+                case BEZIER:
+                    Vec2[] controlPoints = new Vec2[1 + random.nextInt(6)];
+                    for (int j = 0; j < controlPoints.length; j++) {
+                        controlPoints[j] = point(random);
+                    }
+                    tik = new TikType(point(random), point(random), DrawType.BEZIER, controlPoints);
+                    break;
+                case TEXT:
+                    String text = random.nextBoolean() ? "$x_{" + random.nextInt(20) + "}$" : "Label " + random.nextInt(20);
+                    tik = new TikType(point(random), DrawType.TEXT, text);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected DrawType: " + type);
+            }
+            style(random, tik);
+            shapes.add(tik);
+        }
+        return shapes;
+    }
+
+    /**
+     * Generates a closed polygon that does not intersect itself
+     *
+     * @param random     random source
+     * @param vertexCount number of distinct vertices
+     * @return vertices where the last vertex closes the polygon
+     */
+    public static ArrayList<Vec2> polygon(Random random, int vertexCount) {
+        Vec2 center = point(random);
+        float[] angles = new float[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            angles[i] = random.nextFloat() * (float) (2 * Math.PI);
+        }
+        Arrays.sort(angles);
+        ArrayList<Vec2> vertices = new ArrayList<>(vertexCount + 1);
+        for (float angle : angles) {
+            float radius = 0.5f + random.nextFloat() * 3;
+            vertices.add(new Vec2(center.x + radius * (float) Math.cos(angle), center.y + radius * (float) Math.sin(angle)));
+        }
+        vertices.add(vertices.get(0));
+        return vertices;
+    }
+
+    /**
+     * Writes a list of vectors in the format accepted by {@code ImportFromTikz.FromVectorsToPoints}
+     */
+    public static String vectorList(int size) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.append('(').append(snap(random.nextFloat() * 40 - 20)).append(", ")
+                .append(snap(random.nextFloat() * 40 - 20)).append(")\n");
+        }
+        return builder.toString();
+    }
+
+    private static DrawType pickType(Random random, Mix mix) {
+        switch (mix) {
+            case LINES:
+                return DrawType.LINE;
+            case POLYGONS:
+                return DrawType.MULTI_LINE;
+            case CURVES:
+                return DrawType.BEZIER;
+            case TEXT:
+                return DrawType.TEXT;
+            default:
+                int roll = random.nextInt(10);
+                if (roll < 4) return DrawType.LINE;
+                if (roll < 6) return DrawType.MULTI_LINE;
+                if (roll < 7) return DrawType.CIRCLE;
+                if (roll < 8) return DrawType.BEZIER;
+                return DrawType.TEXT;
+        }
+    }
+
+    private static void style(Random random, TikType tik) {
+        tik.color = ColorHolder.DEFAULT_COLORS[random.nextInt(ColorHolder.DEFAULT_COLORS.length)].clone();
+        tik.color.percentValue = random.nextInt(4) == 0 ? 0.05f * (1 + random.nextInt(20)) : 1.0f;
+        tik.dashed = random.nextInt(5) == 0;
+        tik.frontArrow = random.nextInt(4) == 0;
+        tik.backArrow = random.nextInt(8) == 0;
+        tik.lineThickness = DrawType.LineThickness.values()[random.nextInt(DrawType.LineThickness.values().length)];
+    }
+
+    private static Vec2 point(Random random) {
+        return new Vec2(snap(random.nextFloat() * 40 - 20), snap(random.nextFloat() * 40 - 20));
+    }
+
+    // Mirror the editor's grid snapping
+    private static float snap(float value) {
+        return Math.round(value * 10f) / 10f;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tikz.benchmarks;
+
+import com.tikz.grid.ExportCache;
+import com.tikz.grid.ExportToTikz;
+import com.tikz.grid.ShapeStore;
+import com.tikz.grid.TikType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    @Param({"LINES", "POLYGONS", "CURVES", "TEXT", "MIXED"})
+    public Documents.Mix mix;
+
+    private List<TikType> shapes;
+    private ShapeStore store;
+    private ExportCache cache;
+
+    @Setup
+    public void setup() {
+        shapes = Documents.generate(size, mix);
+        store = new ShapeStore();
+        store.addAll(shapes);
+        cache = new ExportCache();
+        cache.convert(store);
+    }
+
+    @Benchmark
+    public String convert() {
+        return ExportToTikz.convert(shapes);
+    }
+
+    @Benchmark
+    public void writeStreaming() throws IOException {
+        ExportToTikz.write(shapes, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void writeStreamingStore() throws IOException {
+        ExportToTikz.write(store, Writer.nullWriter());
+    }
+
+    /**
+     * Exports again after adding one shape, and removes it so every invocation sees the same document
+     */
+    @Benchmark
+    public CharSequence reexportAfterAdd() {
+        store.add(shapes.get(0));
+        cache.shapesChanged(store.size() - 1);
+        CharSequence code = cache.update(store);
+        store.removeLast();
+        cache.shapesChanged(store.size());
+        return code;
+    }
+}
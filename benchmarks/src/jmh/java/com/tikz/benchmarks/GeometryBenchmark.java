@@ -0,0 +1,113 @@
+package com.tikz.benchmarks;
+
+import com.tikz.grid.BezierFlattener;
+import com.tikz.grid.DrawType;
+import com.tikz.grid.ExportToTikz;
+import com.tikz.grid.Tessellation;
+import com.tikz.grid.TikType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bezier sampling, polygon triangulation and the tessellation the editor renders from. Drawing the
+ * tessellation needs a GL context, so only building it is measured here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeometryBenchmark {
+    @State(Scope.Benchmark)
+    public static class Curves {
+        @Param({"100", "10000"})
+        public int size;
+
+        @Param({"0.01", "0.001"})
+        public float tolerance;
+
+        List<TikType> curves;
+        final BezierFlattener flattener = new BezierFlattener();
+
+        @Setup
+        public void setup() {
+            curves = Documents.generate(size, Documents.Mix.CURVES);
+        }
+    }
+
+    @Benchmark
+    public void flattenBezier(Curves curves, Blackhole blackhole) {
+        for (TikType tik : curves.curves) {
+            blackhole.consume(curves.flattener.flatten(tik, curves.tolerance));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Polygons {
+        @Param({"100", "10000"})
+        public int size;
+
+        @Param({"4", "16", "128"})
+        public int vertexCount;
+
+        List<TikType> polygons;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(Documents.SEED);
+            polygons = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                polygons.add(new TikType(Documents.polygon(random, vertexCount), DrawType.MULTI_LINE));
+            }
+        }
+    }
+
+    @Benchmark
+    public void bezierPoints(Curves curves, Blackhole blackhole) {
+        for (TikType tik : curves.curves) {
+            blackhole.consume(ExportToTikz.getBezierPoints(tik));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shapes {
+        @Param({"100", "10000"})
+        public int size;
+
+        @Param({"LINES", "POLYGONS", "CURVES", "MIXED"})
+        public Documents.Mix mix;
+
+        List<TikType> shapes;
+        final Tessellation tessellation = new Tessellation();
+
+        @Setup
+        public void setup() {
+            shapes = Documents.generate(size, mix);
+            // text is drawn from textures, not tessellated
+            shapes.removeIf(tik -> tik.type == DrawType.TEXT);
+        }
+    }
+
+    /**
+     * Rebuilds every shape, which is what rendering cost before tessellations were cached and what a zoom still costs
+     */
+    @Benchmark
+    public void tessellate(Shapes shapes, Blackhole blackhole) {
+        for (TikType tik : shapes.shapes) {
+            blackhole.consume(shapes.tessellation.set(tik, tik.frontArrow, 133.33f, 1.5f, 1f).lineCount);
+        }
+    }
+
+    @Benchmark
+    public void triangulate(Polygons polygons, Blackhole blackhole) {
+        for (TikType tik : polygons.polygons) {
+            tik.triangulate();
+            blackhole.consume(tik.triangleLocations);
+        }
+    }
+}
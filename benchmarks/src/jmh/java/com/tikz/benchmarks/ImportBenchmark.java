@@ -0,0 +1,76 @@
+package com.tikz.benchmarks;
+
+import com.tikz.grid.ExportToTikz;
+import com.tikz.grid.ImportFromTikz;
+import com.tikz.grid.ShapeStore;
+import com.tikz.grid.TikType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportBenchmark {
+    @State(Scope.Benchmark)
+    public static class TikzDocument {
+        @Param({"100", "10000", "100000"})
+        public int size;
+
+        @Param({"LINES", "POLYGONS", "CURVES", "TEXT", "MIXED"})
+        public Documents.Mix mix;
+
+        String tikz;
+        final ForkJoinPool sequential = new ForkJoinPool(1);
+
+        @Setup
+        public void setup() {
+            tikz = ExportToTikz.convert(Documents.generate(size, mix));
+        }
+
+        @TearDown
+        public void tearDown() {
+            sequential.shutdown();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class VectorList {
+        @Param({"100", "10000", "100000"})
+        public int size;
+
+        String vectors;
+
+        @Setup
+        public void setup() {
+            vectors = Documents.vectorList(size);
+        }
+    }
+
+    @Benchmark
+    public List<TikType> fromTikToPoints(TikzDocument document) throws ImportFromTikz.IllegalUnitType {
+        return ImportFromTikz.FromTikToPoints(document.tikz, 1f, 0f);
+    }
+
+    @Benchmark
+    public ShapeStore fromTikToStore(TikzDocument document) throws ImportFromTikz.IllegalUnitType {
+        return ImportFromTikz.FromTikToStore(document.tikz, 1f, 0f);
+    }
+
+    /**
+     * The chunked import on one thread, the baseline of the parallel import
+     */
+    @Benchmark
+    public ShapeStore fromTikToStoreSequential(TikzDocument document) throws ImportFromTikz.IllegalUnitType {
+        return ImportFromTikz.FromTikToStore(document.tikz, 1f, 0f, document.sequential);
+    }
+
+    @Benchmark
+    public TikType fromVectorsToPoints(VectorList list) {
+        return ImportFromTikz.FromVectorsToPoints(list.vectors, 1f, 0f, false);
+    }
+}
@@ -0,0 +1,54 @@
+package com.tikz.benchmarks;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.tikz.grid.GenerateLaTeXImage;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LaTeXImageBenchmark {
+    @Param({"x^2", "\\int_0^1 f(x)\\,dx", "\\sum_{i=0}^n \\binom{n}{i}(1-t)^{n-i}t^iP_i"})
+    public String formula;
+
+    private BufferedImage image;
+
+    @Setup
+    public void setup() throws Exception {
+        GdxNativesLoader.load();
+        // Same wrapping as GenerateLaTeXImage.createLaTeXFormulaImage
+        image = GenerateLaTeXImage.renderLaTexToImage("\\text{ $" + formula + "$ }");
+    }
+
+    @Benchmark
+    public int bufferedImageToPixMap() {
+        Pixmap pixmap = GenerateLaTeXImage.bufferedImageToPixMap(image);
+        int pixel = pixmap.getPixel(0, 0);
+        pixmap.dispose();
+        return pixel;
+    }
+
+    /**
+     * The pixel by pixel conversion bufferedImageToPixMap replaced, kept as the baseline it is compared to
+     */
+    @Benchmark
+    public int perPixel() {
+        Pixmap pixmap = new Pixmap(image.getWidth(), image.getHeight(), Pixmap.Format.RGBA8888);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int argb = image.getRGB(x, y);
+                pixmap.drawPixel(x, y, (argb << 8) | (argb >>> 24));
+            }
+        }
+        int pixel = pixmap.getPixel(0, 0);
+        pixmap.dispose();
+        return pixel;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tikz;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Debug probe that measures the bytes the render thread allocates per frame, so allocations that creep back into
+ * the frame loop show up before they show up as garbage collector pauses. Reports the average and the largest
+ * frame of every few frames to the log. Does nothing on virtual machines that can't count allocations.
+ */
+public class AllocationProbe {
+    private static final String TAG = "AllocationProbe";
+
+    private final int reportFrames;
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId = Thread.currentThread().getId();
+    // bytes the probe allocates itself between two readings
+    private long overhead = 0;
+    private long frameStart;
+    private long total = 0;
+    private long largest = 0;
+    private int frames = 0;
+
+    /**
+     * Creates the probe on the thread it measures
+     *
+     * @param reportFrames frames between two reports
+     */
+    public AllocationProbe(int reportFrames) {
+        this.reportFrames = reportFrames;
+        com.sun.management.ThreadMXBean supported = null;
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                supported = (com.sun.management.ThreadMXBean) bean;
+                if (supported.isThreadAllocatedMemorySupported()) {
+                    supported.setThreadAllocatedMemoryEnabled(true);
+                } else {
+                    supported = null;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException ignored) {
+            supported = null;
+        }
+        threads = supported;
+        if (threads != null) {
+            // the readings box the thread id into an array, measure that once so frames report their own bytes
+            long first = allocatedBytes();
+            overhead = allocatedBytes() - first;
+        }
+    }
+
+    /**
+     * @return whether allocations can be measured
+     */
+    public boolean isSupported() {
+        return threads != null;
+    }
+
+    public void beginFrame() {
+        if (threads != null) {
+            frameStart = allocatedBytes();
+        }
+    }
+
+    public void endFrame() {
+        if (threads == null) {
+            return;
+        }
+        long bytes = Math.max(0, allocatedBytes() - frameStart - overhead);
+        total += bytes;
+        largest = Math.max(largest, bytes);
+        if (++frames == reportFrames) {
+            Gdx.app.log(TAG, "average " + total / frames + " bytes per frame, largest " + largest
+                + " bytes over " + frames + " frames");
+            total = 0;
+            largest = 0;
+            frames = 0;
+        }
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(threadId);
+    }
+}
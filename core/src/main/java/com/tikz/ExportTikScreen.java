@@ -14,12 +14,14 @@ import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.tikz.grid.GridInterface;
-import com.tikz.grid.ExportToTikz;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.Writer;
 import java.util.Objects;
 
 public class ExportTikScreen implements Screen {
+    private static final Color BACKGROUND_LIGHT = new Color(0.5f, 0.5f, 0.5f, 1);
     private final Stage stage;
     private final Main app;
     Table t;
@@ -90,7 +92,9 @@ public class ExportTikScreen implements Screen {
                                                 if(!Objects.equals(file.extension(), "txt")){
                                                     throw new ImproperFileType("The file must end with a txt extension");
                                                 }
-                                                file.writeString(ExportToTikz.convert(grid.points), false);
+                                                try (Writer writer = new BufferedWriter(file.writer(false, "UTF-8"))) {
+                                                    grid.writeTikz(writer);
+                                                }
                                             } catch (Exception e) {
                                                 ErrorDialog(e);
                                             }
@@ -106,9 +110,10 @@ public class ExportTikScreen implements Screen {
                                 if(!fileName.endsWith(".txt")){
                                     fileName += ".txt";
                                 }
-                                String output = ExportToTikz.convert(grid.points);
                                 FileHandle newFile = Gdx.files.absolute(file.file().getParent() + File.separator + fileName);
-                                newFile.writeString(output, false);
+                                try (Writer writer = new BufferedWriter(newFile.writer(false, "UTF-8"))) {
+                                    grid.writeTikz(writer);
+                                }
                                 app.setScreen(new MainScreen(app).setGrid(grid));
 //                                app.setScreen(new ShowTikz(app, grid, output));
                             } catch (Exception e) {
@@ -140,7 +145,7 @@ public class ExportTikScreen implements Screen {
 
     @Override
     public void render(float delta) {
-        ScreenUtils.clear(ProgramState.lightMode ? new Color(0.5f, 0.5f, 0.5f, 1) : Color.BLACK);
+        ScreenUtils.clear(ProgramState.lightMode ? BACKGROUND_LIGHT : Color.BLACK);
         try {
             stage.act(delta);
             stage.draw();
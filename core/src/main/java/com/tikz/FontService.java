@@ -0,0 +1,225 @@
+package com.tikz;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.tikz.grid.DistanceField;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Generates the fonts of one typeface with a single generator and shares them by size. Sizes are rounded to
+ * buckets a few percent apart, so resizing the window or zooming reuses fonts instead of generating one for
+ * every pixel size. Fonts are acquired by whoever shows them, and the least recently released are disposed
+ * once more than a few are unused.
+ */
+public class FontService implements Disposable {
+    private final FileHandle file;
+    private final int maxUnused;
+    private FreeTypeFontGenerator generator;
+    private final IntMap<Entry> fonts = new IntMap<>();
+    // unused fonts, least recently released first
+    private final Array<Entry> unused = new Array<>();
+    private final Array<BitmapFont> distanceFields = new Array<>();
+
+    private static class Entry {
+        final int size;
+        final BitmapFont font;
+        int references = 0;
+
+        Entry(int size, BitmapFont font) {
+            this.size = size;
+            this.font = font;
+        }
+    }
+
+    /**
+     * @param file      TrueType font file
+     * @param maxUnused number of fonts kept after they are released
+     */
+    public FontService(FileHandle file, int maxUnused) {
+        this.file = file;
+        this.maxUnused = maxUnused;
+    }
+
+    /**
+     * Rounds a font size to its bucket. Sizes up to 16 pixels are exact, larger sizes are rounded to a sixteenth
+     * of their power of two, so a font is at most 3% off the requested size.
+     *
+     * @param size size in pixels
+     * @return size the font is generated with
+     */
+    public static int bucket(float size) {
+        int pixels = Math.max(1, Math.round(size));
+        if (pixels <= 16) {
+            return pixels;
+        }
+        int step = Integer.highestOneBit(pixels) / 16;
+        return Math.round(size / step) * step;
+    }
+
+    /**
+     * @return whether the font of a size is generated, so acquiring it is cheap
+     */
+    public boolean isCached(float size) {
+        return fonts.containsKey(bucket(size));
+    }
+
+    /**
+     * Gets the font of a size, generating it if it is not cached. It must be released when it is not shown
+     * anymore.
+     *
+     * @param size size in pixels
+     * @return font with the size of the bucket
+     * @throws com.badlogic.gdx.utils.GdxRuntimeException the font could not be generated
+     */
+    public BitmapFont acquire(float size) {
+        int bucket = bucket(size);
+        Entry entry = fonts.get(bucket);
+        if (entry == null) {
+            if (generator == null) {
+                FreeTypeFontGenerator.setMaxTextureSize(FreeTypeFontGenerator.NO_MAXIMUM);
+                generator = new FreeTypeFontGenerator(file);
+            }
+            FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+            parameter.size = bucket;
+            entry = new Entry(bucket, generator.generateFont(parameter));
+            fonts.put(bucket, entry);
+        } else if (entry.references == 0) {
+            unused.removeValue(entry, true);
+        }
+        entry.references++;
+        return entry.font;
+    }
+
+    /**
+     * Releases a font returned by {@link #acquire(float)}. It stays cached until enough other fonts are released.
+     */
+    public void release(BitmapFont font) {
+        Entry entry = null;
+        for (Entry e : fonts.values()) {
+            if (e.font == font) {
+                entry = e;
+                break;
+            }
+        }
+        if (entry == null || entry.references == 0) {
+            throw new IllegalStateException("The font was not acquired");
+        }
+        if (--entry.references == 0) {
+            unused.add(entry);
+            while (unused.size > maxUnused) {
+                Entry oldest = unused.removeIndex(0);
+                fonts.remove(oldest.size);
+                oldest.font.dispose();
+            }
+        }
+    }
+
+    /**
+     * Generates a distance field font, which is drawn with a distance field shader and can be scaled to any size
+     * with {@link BitmapFont.BitmapFontData#setScale(float)}. It is owned by the service.
+     *
+     * @param size   size in pixels of the glyphs the distance field is computed from
+     * @param spread distance in pixels from the outline where the field is 0 outside and 1 inside
+     * @return font at the given size and scale 1
+     * @throws com.badlogic.gdx.utils.GdxRuntimeException the font could not be generated
+     */
+    public BitmapFont generateDistanceField(int size, int spread) {
+        if (generator == null) {
+            FreeTypeFontGenerator.setMaxTextureSize(FreeTypeFontGenerator.NO_MAXIMUM);
+            generator = new FreeTypeFontGenerator(file);
+        }
+        PixmapPacker glyphs = new PixmapPacker(1024, 1024, Pixmap.Format.RGBA8888, 1, false,
+            new PixmapPacker.SkylineStrategy());
+        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+        parameter.size = size;
+        parameter.packer = glyphs;
+        FreeTypeFontGenerator.FreeTypeBitmapFontData data = generator.generateData(parameter);
+
+        // every glyph grows by the spread on all sides, so its field fades out before the edge of its quad
+        PixmapPacker fields = new PixmapPacker(1024, 1024, Pixmap.Format.RGBA8888, 1, false,
+            new PixmapPacker.SkylineStrategy());
+        // FreeTypeBitmapFontData hides the glyph pages behind a package private list of the same name
+        for (BitmapFont.Glyph[] page : ((BitmapFont.BitmapFontData) data).glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph == null || glyph.width == 0 || glyph.height == 0) continue;
+                Pixmap source = glyphs.getPages().get(glyph.page).getPixmap();
+                int width = glyph.width + spread * 2;
+                int height = glyph.height + spread * 2;
+                byte[] coverage = new byte[width * height];
+                for (int y = 0; y < glyph.height; y++) {
+                    for (int x = 0; x < glyph.width; x++) {
+                        coverage[(y + spread) * width + x + spread] =
+                            (byte) source.getPixel(glyph.srcX + x, glyph.srcY + y);
+                    }
+                }
+                byte[] field = DistanceField.generate(coverage, width, height, spread);
+
+                Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+                ByteBuffer pixels = pixmap.getPixels();
+                for (byte distance : field) {
+                    // white, with the distance as alpha
+                    pixels.put((byte) 0xFF).put((byte) 0xFF).put((byte) 0xFF).put(distance);
+                }
+                pixels.rewind();
+                String name = String.valueOf(glyph.id);
+                Rectangle rect = fields.pack(name, pixmap);
+                glyph.page = fields.getPageIndex(name);
+                pixmap.dispose();
+                glyph.srcX = (int) rect.x;
+                glyph.srcY = (int) rect.y;
+                glyph.width = width;
+                glyph.height = height;
+                glyph.xoffset -= spread;
+                glyph.yoffset -= spread;
+            }
+        }
+        // generating the data uploaded the glyph pages to textures, which the packer doesn't dispose, disposing a
+        // page texture disposes its pixmap as well
+        for (PixmapPacker.Page page : glyphs.getPages()) {
+            if (page.getTexture() != null) {
+                page.getTexture().dispose();
+            }
+        }
+        glyphs.dispose();
+
+        Array<TextureRegion> regions = new Array<>();
+        for (PixmapPacker.Page page : fields.getPages()) {
+            Texture texture = new Texture(page.getPixmap());
+            texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            regions.add(new TextureRegion(texture));
+        }
+        fields.dispose();
+        BitmapFont font = new BitmapFont(data, regions, false);
+        font.setOwnsTexture(true);
+        distanceFields.add(font);
+        return font;
+    }
+
+    @Override
+    public void dispose() {
+        for (Entry entry : fonts.values()) {
+            entry.font.dispose();
+        }
+        fonts.clear();
+        unused.clear();
+        for (BitmapFont font : distanceFields) {
+            font.dispose();
+        }
+        distanceFields.clear();
+        if (generator != null) {
+            generator.dispose();
+            generator = null;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.tikz;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Times the phases of the last few hundred frames and counts their draw calls, to find where frame time goes.
+ * Time is charged to the phase that was switched to last, so every nanosecond of a frame belongs to exactly one
+ * phase and nested phases, like labels drawn between shapes, are not counted twice. The times are what the CPU
+ * spends issuing the work, the GPU may still be drawing when a phase ends.
+ * <p>
+ * While enabled, an overlay shows rolling percentiles of every phase and the window can be written to a CSV file.
+ */
+public class FrameProfiler {
+    /** Parts of a frame, {@link #OTHER} is everything that isn't timed separately */
+    public enum Phase {
+        OTHER, INPUT, GRID, SHAPES, LABELS, EDITING, UI
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    // frames between two updates of the overlay text, so the numbers can be read
+    private static final int OVERLAY_FRAMES = 30;
+    private static final float[] PERCENTILES = {0.5f, 0.95f, 0.99f};
+
+    private final int window;
+    // milliseconds of every phase of every frame in the window, a ring buffer
+    private final float[][] phaseMillis;
+    private final float[] frameMillis;
+    private final int[] drawCalls;
+    private final int[] vertices;
+    private final int[] textureBindings;
+    private final int[] shaderSwitches;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final float[] sorted;
+    private final StringBuilder overlay = new StringBuilder();
+    private GLProfiler gl;
+    private boolean enabled = false;
+    private Phase current = Phase.OTHER;
+    private long frameStart;
+    private long phaseStart;
+    // slot of the next frame, and the number of frames in the window
+    private int next = 0;
+    private int frames = 0;
+
+    /**
+     * @param window number of frames the percentiles and the CSV cover
+     */
+    public FrameProfiler(int window) {
+        this.window = window;
+        phaseMillis = new float[PHASES.length][window];
+        frameMillis = new float[window];
+        drawCalls = new int[window];
+        vertices = new int[window];
+        textureBindings = new int[window];
+        shaderSwitches = new int[window];
+        sorted = new float[window];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops profiling, which intercepts the GL calls while it is enabled. Starting clears the window.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        if (gl == null) {
+            gl = new GLProfiler(Gdx.graphics);
+        }
+        if (enabled) {
+            gl.enable();
+            next = 0;
+            frames = 0;
+            overlay.setLength(0);
+        } else {
+            gl.disable();
+        }
+    }
+
+    public void beginFrame() {
+        if (!enabled) {
+            return;
+        }
+        Arrays.fill(phaseNanos, 0);
+        gl.reset();
+        current = Phase.OTHER;
+        frameStart = TimeUtils.nanoTime();
+        phaseStart = frameStart;
+    }
+
+    /**
+     * Charges the time since the last switch to the current phase and makes another phase current
+     *
+     * @param phase phase the following work belongs to
+     * @return phase that was current, to switch back to after nested work
+     */
+    public Phase swap(Phase phase) {
+        if (!enabled) {
+            return Phase.OTHER;
+        }
+        long now = TimeUtils.nanoTime();
+        phaseNanos[current.ordinal()] += now - phaseStart;
+        phaseStart = now;
+        Phase previous = current;
+        current = phase;
+        return previous;
+    }
+
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        long now = TimeUtils.nanoTime();
+        phaseNanos[current.ordinal()] += now - phaseStart;
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseMillis[i][next] = phaseNanos[i] / 1e6f;
+        }
+        frameMillis[next] = (now - frameStart) / 1e6f;
+        drawCalls[next] = gl.getDrawCalls();
+        vertices[next] = (int) gl.getVertexCount().total;
+        textureBindings[next] = gl.getTextureBindings();
+        shaderSwitches[next] = gl.getShaderSwitches();
+        next = (next + 1) % window;
+        frames = Math.min(frames + 1, window);
+        if (next % OVERLAY_FRAMES == 0) {
+            updateOverlay();
+        }
+    }
+
+    /**
+     * Draws the percentiles in the top right corner of the screen, outside of the timed frame
+     */
+    public void drawOverlay(SpriteBatch batch, BitmapFont font) {
+        if (!enabled || overlay.length() == 0) {
+            return;
+        }
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.begin();
+        font.setColor(Color.GOLD);
+        font.draw(batch, overlay, 0, Gdx.graphics.getHeight() - 4f, Gdx.graphics.getWidth() - 8f,
+            Align.right, false);
+        batch.end();
+    }
+
+    private void updateOverlay() {
+        overlay.setLength(0);
+        overlay.append("ms p50 / p95 / p99 over ").append(frames).append(" frames\n");
+        appendPercentiles("frame", frameMillis);
+        for (Phase phase : PHASES) {
+            appendPercentiles(phase.name().toLowerCase(Locale.ROOT), phaseMillis[phase.ordinal()]);
+        }
+        int last = (next + window - 1) % window;
+        overlay.append("draw calls ").append(drawCalls[last])
+            .append(", vertices ").append(vertices[last])
+            .append(", textures ").append(textureBindings[last])
+            .append(", shaders ").append(shaderSwitches[last]);
+    }
+
+    private void appendPercentiles(String name, float[] samples) {
+        System.arraycopy(samples, 0, sorted, 0, frames);
+        Arrays.sort(sorted, 0, frames);
+        overlay.append(name);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            overlay.append(i == 0 ? " " : " / ");
+            // one decimal without formatting a string
+            float value = sorted[Math.min(frames - 1, (int) (PERCENTILES[i] * frames))];
+            int tenths = Math.round(value * 10);
+            overlay.append(tenths / 10).append('.').append(tenths % 10);
+        }
+        overlay.append('\n');
+    }
+
+    /**
+     * Writes the frames of the window, oldest first, one row per frame
+     *
+     * @param file CSV file to write
+     */
+    public void writeCsv(FileHandle file) {
+        StringBuilder csv = new StringBuilder("frame_ms");
+        for (Phase phase : PHASES) {
+            csv.append(',').append(phase.name().toLowerCase(Locale.ROOT)).append("_ms");
+        }
+        csv.append(",draw_calls,vertices,texture_bindings,shader_switches\n");
+        for (int f = 0; f < frames; f++) {
+            int i = (next - frames + f + window) % window;
+            csv.append(String.format(Locale.ROOT, "%.3f", frameMillis[i]));
+            for (Phase phase : PHASES) {
+                csv.append(',').append(String.format(Locale.ROOT, "%.3f", phaseMillis[phase.ordinal()][i]));
+            }
+            csv.append(',').append(drawCalls[i])
+                .append(',').append(vertices[i])
+                .append(',').append(textureBindings[i])
+                .append(',').append(shaderSwitches[i])
+                .append('\n');
+        }
+        file.writeString(csv.toString(), false);
+    }
+}
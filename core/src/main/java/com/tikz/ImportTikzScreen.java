@@ -2,6 +2,7 @@ package com.tikz;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -16,13 +17,22 @@ import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.tikz.grid.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+
 public class ImportTikzScreen implements Screen {
+    private static final Color BACKGROUND_LIGHT = new Color(0.5f, 0.5f, 0.5f, 1);
+    // Files larger than this are shown as a preview and imported straight from disk
+    private static final long PREVIEW_BYTES = 1 << 16;
+    private static final int PREVIEW_LINES = 200;
+
     private final Stage stage;
     private final Table t;
     private final Main app;
     TextArea textArea;
     private final GridInterface grid;
     private final ScrollPane scrollPane;
+    private FileHandle sourceFile;
 
     public ImportTikzScreen(Main app, GridInterface gridInterface) {
         this.app = app;
@@ -89,9 +99,12 @@ public class ImportTikzScreen implements Screen {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 try {
-                    gridInterface.points = ImportFromTikz.FromTikToPoints(textArea.getText(), scale.getValue(), rotation.getValue());
+                    ShapeStore shapes = isPreview()
+                        ? ImportFromTikz.FromTikFileToStore(sourceFile.file().toPath(), scale.getValue(), rotation.getValue())
+                        : ImportFromTikz.FromTikToStore(textArea.getText(), scale.getValue(), rotation.getValue());
+                    gridInterface.setPoints(shapes);
                 } catch (NullPointerException | NumberFormatException | GdxRuntimeException | IllegalDrawType |
-                ImportFromTikz.IllegalUnitType e) {
+                ImportFromTikz.IllegalUnitType | IOException e) {
                     System.err.println("Error: Improper Tikz Code was imported");
 
                     StringBuilder sb = new StringBuilder();
@@ -124,11 +137,16 @@ public class ImportTikzScreen implements Screen {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 try {
-                    gridInterface.editing = ImportFromTikz.FromVectorsToPoints(textArea.getText(), scale.getValue(), rotation.getValue());
+                    gridInterface.editing = isPreview()
+                        ? ImportFromTikz.FromVectorsFile(sourceFile.file().toPath(), scale.getValue(), rotation.getValue(),
+                            ProgramState.isFilled)
+                        : ImportFromTikz.FromVectorsToPoints(textArea.getText(), scale.getValue(), rotation.getValue(),
+                            ProgramState.isFilled);
                     gridInterface.setDrawType(DrawType.DROPPED_POLYGON);
                     gridInterface.editing.color = ProgramState.colors[0].clone();
                     ProgramState.addingPoints = true;
-                } catch (NullPointerException | NumberFormatException | GdxRuntimeException | IllegalDrawType e) {
+                } catch (NullPointerException | NumberFormatException | GdxRuntimeException | IllegalDrawType |
+                IOException e) {
                     System.err.println("Error: Improper Tikz Code was imported");
 
                     StringBuilder sb = new StringBuilder();
@@ -176,6 +194,49 @@ public class ImportTikzScreen implements Screen {
         scrollPane.layout();
     }
 
+    /**
+     * Opens a file for import. Small files are loaded into the editor, larger ones only show their first lines
+     * in a read only preview and are parsed directly from the file when imported.
+     *
+     * @param file file with tikz code or a list of vectors
+     * @throws GdxRuntimeException the file could not be read
+     */
+    public ImportTikzScreen(Main app, GridInterface gridInterface, FileHandle file) {
+        this(app, gridInterface);
+        if (file.length() <= PREVIEW_BYTES) {
+            textArea.setText(file.readString("UTF-8").replaceAll("\\n+", "\n"));
+        } else {
+            sourceFile = file;
+            textArea.setText(readPreview(file));
+            // an edited preview would silently drop the rest of the file
+            textArea.setDisabled(true);
+        }
+        textArea.setPrefRows(textArea.getText().split("\n").length);
+        scrollPane.layout();
+    }
+
+    private static String readPreview(FileHandle file) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("% Preview of the first ").append(PREVIEW_LINES).append(" lines of ").append(file.name())
+            .append(", the whole file is imported and can't be edited here\n");
+        try (BufferedReader reader = file.reader(8192, "UTF-8")) {
+            String line;
+            int lines = 0;
+            while (lines < PREVIEW_LINES && (line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                sb.append(line).append('\n');
+                lines++;
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading file: " + file, e);
+        }
+        return sb.toString();
+    }
+
+    private boolean isPreview() {
+        return sourceFile != null;
+    }
+
     @Override
     public void show() {
 
@@ -183,7 +244,7 @@ public class ImportTikzScreen implements Screen {
 
     @Override
     public void render(float delta) {
-        ScreenUtils.clear(ProgramState.lightMode ? new Color(0.5f, 0.5f, 0.5f, 1) : Color.BLACK);
+        ScreenUtils.clear(ProgramState.lightMode ? BACKGROUND_LIGHT : Color.BLACK);
         stage.act(delta);
         stage.draw();
     }
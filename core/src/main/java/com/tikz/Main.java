@@ -2,55 +2,170 @@ package com.tikz;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
 
 /**
  * {@link com.badlogic.gdx.Game} implementation shared by all platforms.
  */
 public class Main extends Game {
+    // time without font requests before the fonts of a window drag are generated
+    private static final long FONT_DEBOUNCE_MILLIS = 200;
+    // size of the glyphs the distance field font is computed from, and the reach of the field around them
+    public static final int DISTANCE_FIELD_SIZE = 64;
+    public static final int DISTANCE_FIELD_SPREAD = 6;
+    // frames between two reports of the allocation probe
+    private static final int ALLOCATION_REPORT_FRAMES = 120;
+    // frames the timing percentiles and the CSV cover
+    private static final int PROFILER_WINDOW = 600;
     public SpriteBatch batch;
     public ShapeRenderer shapeRenderer;
     public BitmapFont TikzTextFont;
     public BitmapFont editorFont;
+    /** Shader for {@link #TikzTextFont} when it is a distance field font, otherwise null */
+    public ShaderProgram distanceFieldShader;
+    private FontService fonts;
+    // sizes waiting for the requests to settle, or -1
+    private float pendingEditorSize = -1;
+    private float pendingTikSize = -1;
+    // time of the last frame with font requests, requests within a frame count as one
+    private long lastFontRequest = 0;
+    private boolean fontRequested = false;
+    private AllocationProbe allocationProbe;
+    /** Phase timings of the frames, toggled from the editor */
+    public final FrameProfiler profiler = new FrameProfiler(PROFILER_WINDOW);
 
     @Override
     public void create() {
+        // input events, posted runnables and requestRendering still draw frames
+        Gdx.graphics.setContinuousRendering(!ProgramState.onDemandRendering);
         batch = new SpriteBatch();
         shapeRenderer = new ShapeRenderer();
-        FreeTypeFontGenerator.setMaxTextureSize(FreeTypeFontGenerator.NO_MAXIMUM);
+        fonts = new FontService(Gdx.files.internal("ui/Times New Roman.ttf"), 8);
+        if (ProgramState.distanceFieldText) {
+            createDistanceFieldFont();
+        }
         updateFont(1);
         updateTikFont(1);
         setScreen(new MainScreen(this));
+        if (ProgramState.allocationProbe) {
+            allocationProbe = new AllocationProbe(ALLOCATION_REPORT_FRAMES);
+            if (!allocationProbe.isSupported()) {
+                Gdx.app.error("Main", "The allocation probe is not supported by this virtual machine");
+                allocationProbe = null;
+            }
+        }
     }
 
+    /**
+     * Changes the size of the editor font. Sizes that aren't cached are generated once the requests settle,
+     * so dragging the window doesn't generate a font every frame.
+     */
     public void updateFont(float scale) {
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("ui/Times New Roman.ttf"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+        float size = 14f * scale;
+        if (editorFont == null || fonts.isCached(size) || isFontRequestSettled()) {
+            editorFont = swapFont(editorFont, size);
+            pendingEditorSize = -1;
+        } else {
+            pendingEditorSize = size;
+        }
+        fontRequested = true;
+    }
 
-        parameter.size = (int) (14f*scale);
+    private void createDistanceFieldFont() {
+        ShaderProgram shader = DistanceFieldFont.createDistanceFieldShader();
+        if (!shader.isCompiled()) {
+            Gdx.app.error("Main", "Using bitmap fonts, the distance field shader failed: " + shader.getLog());
+            shader.dispose();
+            ProgramState.distanceFieldText = false;
+            return;
+        }
         try {
-            editorFont = generator.generateFont(parameter);
-        } catch (GdxRuntimeException ignored){
+            TikzTextFont = fonts.generateDistanceField(DISTANCE_FIELD_SIZE, DISTANCE_FIELD_SPREAD);
+            distanceFieldShader = shader;
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("Main", "Using bitmap fonts, the distance field font failed", e);
+            shader.dispose();
+            ProgramState.distanceFieldText = false;
         }
     }
 
+    /**
+     * Changes the size of the font of tikz text nodes, like {@link #updateFont(float)}. A distance field font
+     * is only scaled, which is free.
+     */
     public void updateTikFont(float scale) {
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal("ui/Times New Roman.ttf"));
-        FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        parameter.size = (int) (60f*scale);
+        float size = 60f * scale;
+        if (distanceFieldShader != null) {
+            TikzTextFont.getData().setScale(size / DISTANCE_FIELD_SIZE);
+            return;
+        }
+        if (TikzTextFont == null || fonts.isCached(size) || isFontRequestSettled()) {
+            TikzTextFont = swapFont(TikzTextFont, size);
+            pendingTikSize = -1;
+        } else {
+            pendingTikSize = size;
+        }
+        fontRequested = true;
+    }
+
+    private boolean isFontRequestSettled() {
+        return TimeUtils.timeSinceMillis(lastFontRequest) >= FONT_DEBOUNCE_MILLIS;
+    }
+
+    private BitmapFont swapFont(BitmapFont old, float size) {
         try {
-            TikzTextFont = generator.generateFont(parameter);
-        } catch (GdxRuntimeException ignored){
+            BitmapFont font = fonts.acquire(size);
+            if (old != null) {
+                fonts.release(old);
+            }
+            return font;
+        } catch (GdxRuntimeException ignored) {
+            return old;
         }
     }
 
     @Override
     public void render() {
-        super.render();
+        // generating fonts is part of the frame, as other work
+        profiler.beginFrame();
+        if (fontRequested) {
+            lastFontRequest = TimeUtils.millis();
+            fontRequested = false;
+        }
+        if ((pendingEditorSize >= 0 || pendingTikSize >= 0) && isFontRequestSettled()) {
+            boolean editorChanged = pendingEditorSize >= 0;
+            if (pendingEditorSize >= 0) {
+                editorFont = swapFont(editorFont, pendingEditorSize);
+                pendingEditorSize = -1;
+            }
+            if (pendingTikSize >= 0) {
+                TikzTextFont = swapFont(TikzTextFont, pendingTikSize);
+                pendingTikSize = -1;
+            }
+            // screens give their widgets the editor font when they are resized
+            if (editorChanged && screen != null) {
+                screen.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            }
+        }
+        if (pendingEditorSize >= 0 || pendingTikSize >= 0) {
+            // keep drawing frames until the requests settle
+            Gdx.graphics.requestRendering();
+        }
+        if (allocationProbe != null) {
+            allocationProbe.beginFrame();
+            super.render();
+            allocationProbe.endFrame();
+        } else {
+            super.render();
+        }
+        profiler.endFrame();
+        profiler.drawOverlay(batch, editorFont);
     }
 
     @Override
@@ -58,7 +173,9 @@ public class Main extends Game {
         batch.dispose();
         screen.dispose();
         shapeRenderer.dispose();
-        TikzTextFont.dispose();
-        editorFont.dispose();
+        fonts.dispose();
+        if (distanceFieldShader != null) {
+            distanceFieldShader.dispose();
+        }
     }
 }
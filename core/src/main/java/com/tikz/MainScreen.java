@@ -25,6 +25,8 @@ import java.util.Objects;
 import static com.tikz.ProgramState.*;
 
 public class MainScreen implements Screen {
+    // background of the menu in light mode
+    private static final Color MENU_LIGHT = new Color(0xDDDDDDFF);
     public Table t;
     private final Main app;
     private Stage stage;
@@ -33,7 +35,7 @@ public class MainScreen implements Screen {
     private GridInterface grid;
     private float time = 1f;
     private boolean hiddenMenu = false;
-    private Vector2 startingPan = new Vector2();
+    private final Vector2 startingPan = new Vector2();
     private TextButton bezierButton;
     private FileExplorer fileExplorer;
 
@@ -70,7 +72,7 @@ public class MainScreen implements Screen {
                 throw new ImproperFileType("The File Type must be .txt");
             }
             try {
-                app.setScreen(new ImportTikzScreen(app, grid, file.readString().replaceAll("\\n+", "\n")));
+                app.setScreen(new ImportTikzScreen(app, grid, file));
             } catch (GdxRuntimeException e) {
                 Dialog errorDialog = new Dialog("Error", skin) {
                     {
@@ -118,7 +120,7 @@ public class MainScreen implements Screen {
                 table.getStage().setKeyboardFocus(null);
                 stage.setKeyboardFocus(null);
                 if (type == DrawType.TEXT) {
-                    grid.editing = new TikType(new Vector2(), new Vector2(), DrawType.TEXT);
+                    grid.editing = new TikType(new Vec2(), new Vec2(), DrawType.TEXT);
                     ProgramState.addingPoints = true;
                 } else {
                     ProgramState.addingPoints = false;
@@ -140,7 +142,7 @@ public class MainScreen implements Screen {
                 table.getStage().setKeyboardFocus(null);
                 stage.setKeyboardFocus(null);
                 if (type == DrawType.TEXT) {
-                    grid.editing = new TikType(new Vector2(), new Vector2(), DrawType.TEXT);
+                    grid.editing = new TikType(new Vec2(), new Vec2(), DrawType.TEXT);
                     ProgramState.addingPoints = true;
                 } else if (type == DrawType.BEZIER) {
                     ProgramState.addingPoints = false;
@@ -175,10 +177,11 @@ public class MainScreen implements Screen {
 
         grid.render(app.shapeRenderer);
 
+        app.profiler.swap(FrameProfiler.Phase.UI);
         if(lightMode)
-            app.shapeRenderer.setColor(new Color(0xDDDDDDFF));
+            app.shapeRenderer.setColor(MENU_LIGHT);
         else
-            app.shapeRenderer.setColor(new Color(Color.BLACK));
+            app.shapeRenderer.setColor(Color.BLACK);
         app.shapeRenderer.set(ShapeRenderer.ShapeType.Filled);
         app.shapeRenderer.rect(tableOffset, 0, t.getWidth(), Gdx.graphics.getHeight());
         app.shapeRenderer.end();
@@ -188,16 +191,24 @@ public class MainScreen implements Screen {
             stage.draw();
         }
 
+        app.profiler.swap(FrameProfiler.Phase.INPUT);
         handleInputs();
+        app.profiler.swap(FrameProfiler.Phase.OTHER);
 
         if (time < 0.5f) {
-            time += Gdx.graphics.getDeltaTime();
+            // the first frame after idling has a long delta, which would skip the animation
+            time += Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f);
             if (hiddenMenu) {
                 tableOffset = -t.getWidth() * ease(time * 2);
             } else {
                 tableOffset = -t.getWidth() * (1 - ease(time * 2));
             }
         }
+
+        // Inputs are polled, so keep drawing while the menu slides or keys and buttons are held
+        if (time < 0.5f || windowFocused && (Gdx.input.isKeyPressed(Input.Keys.ANY_KEY) || Gdx.input.isTouched())) {
+            Gdx.graphics.requestRendering();
+        }
     }
 
     private void handleInputs() {
@@ -222,6 +233,17 @@ public class MainScreen implements Screen {
             wireframe = !wireframe;
         }
 
+        if (notTyping() && Gdx.input.isKeyJustPressed(Input.Keys.P) && Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)) {
+            app.profiler.setEnabled(!app.profiler.isEnabled());
+        }
+
+        if (notTyping() && Gdx.input.isKeyJustPressed(Input.Keys.O) && Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)
+            && app.profiler.isEnabled()) {
+            FileHandle csv = Gdx.files.local("frame-timings-" + System.currentTimeMillis() + ".csv");
+            app.profiler.writeCsv(csv);
+            Gdx.app.log("MainScreen", "Wrote frame timings to " + csv.file().getAbsolutePath());
+        }
+
         // change zoom
         float scalingS = Math.min((float) 800 / GridInterface.ROWS, (float) 1200 / GridInterface.COLS);
         float scaling = Math.min((float) Gdx.graphics.getHeight() / GridInterface.ROWS,
@@ -265,9 +287,9 @@ public class MainScreen implements Screen {
 
         if (MainScreen.checkPanMode()) {
             if (MainScreen.checkJustPanMode()) {
-                startingPan = new Vector2(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY()).add(grid.panning);
+                startingPan.set(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY()).add(grid.panning);
             }
-            grid.panning.set(startingPan.cpy().sub(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY()));
+            grid.panning.set(startingPan).sub(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY());
         }
 
         if (Gdx.input.isKeyPressed(Input.Keys.UP) && notTyping()) {
@@ -545,7 +567,7 @@ public class MainScreen implements Screen {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 System.out.println("Generating Tikz Points");
-                app.setScreen(new ExportTikScreen(app, grid, ExportToTikz.convert(grid.points)));
+                app.setScreen(new ExportTikScreen(app, grid, grid.exportTikz()));
             }
         });
 
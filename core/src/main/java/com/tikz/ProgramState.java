@@ -1,6 +1,5 @@
 package com.tikz;
 
-import com.badlogic.gdx.graphics.Color;
 import com.tikz.grid.DrawType;
 
 public class ProgramState {
@@ -18,20 +17,22 @@ public class ProgramState {
     public static boolean lightMode = false;
     public static boolean isFilled = false;
     public static boolean wireframe = false;
+    // texture memory for rendered LaTeX before formulas that are off screen are freed
+    public static long latexTextureBudget = 64L * 1024 * 1024;
+    // memory of cleared and replaced documents the undo history keeps
+    public static long historyBudget = 64L * 1024 * 1024;
+    // draw canvas text with one distance field font scaled to every zoom, instead of a bitmap font per size
+    public static boolean distanceFieldText = true;
+    // only draw a frame when something changed, instead of at the refresh rate
+    public static boolean onDemandRendering = true;
+    // set by the platform launcher, unfocused windows don't keep drawing for held keys
+    public static boolean windowFocused = true;
+    // log the bytes the render thread allocates per frame, the frame loop should stay at zero
+    public static boolean allocationProbe = false;
 
     // default is the thin line type
     public static DrawType.LineThickness lineThickness = DrawType.LineThickness.THIN;
 
     public static int colorIndex = 0;
-    public static final ColorHolder[] colors = {
-        new ColorHolder(new Color(0x000000ff), "Black"  , 1.0f).clone(),
-        new ColorHolder(new Color(0x808080ff), "Gray"   , 1.0f).clone(),
-        new ColorHolder(new Color(0xff0101ff), "Red"    , 1.0f).clone(),
-        new ColorHolder(new Color(0x01ff01ff), "Green"  , 1.0f).clone(),
-        new ColorHolder(new Color(0x0101ffff), "Blue"   , 1.0f).clone(),
-        new ColorHolder(new Color(0xff8001ff), "Orange" , 1.0f).clone(),
-        new ColorHolder(new Color(0xffeb3dff), "Yellow" , 1.0f).clone(),
-        new ColorHolder(new Color(0x01b9f2ff), "Cyan"   , 1.0f).clone(),
-        new ColorHolder(new Color(0xfb3199ff), "Magenta", 1.0f).clone(),
-    };
+    public static final ColorHolder[] colors = ColorHolder.DEFAULT_COLORS;
 }
@@ -7,37 +7,60 @@ import org.scilab.forge.jlatexmath.TeXFormula;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 
 public class GenerateLaTeXImage {
     public static BufferedImage renderLaTexToImage(String latex) throws ParseException {
         // Create a TeXFormula object from the LaTeX string, which will be rendered as an image.
         TeXFormula formula = new TeXFormula(latex);
         formula.setDEBUG(false);
-        System.out.printf("LaTeX String: %s\n", latex);
         return (BufferedImage) formula.createBufferedImage(TeXFormula.SERIF, 512f, Color.WHITE, null);
     }
 
+    /**
+     * Copies an image into a new RGBA8888 pixmap a row at a time. Images in the ARGB format jlatexmath
+     * renders to are read straight from their pixel array, others are converted by {@link BufferedImage#getRGB}.
+     *
+     * @param img image to copy, it is not modified
+     * @return pixmap with the same pixels
+     */
     public static Pixmap bufferedImageToPixMap(BufferedImage img) {
         int width = img.getWidth();
         int height = img.getHeight();
-        System.out.printf("buffered image size: %d, %d%n", width, height);
         Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        // RGBA8888 stores the channels in memory as R, G, B, A, which is a big endian int
+        IntBuffer pixels = pixmap.getPixels().duplicate().order(ByteOrder.BIG_ENDIAN).asIntBuffer();
 
-        // Iterate over the BufferedImage and convert each pixel properly
+        int[] data = null;
+        int offset = 0;
+        int stride = width;
+        WritableRaster raster = img.getRaster();
+        if (img.getType() == BufferedImage.TYPE_INT_ARGB && raster.getDataBuffer() instanceof DataBufferInt
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel) {
+            SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+            data = ((DataBufferInt) raster.getDataBuffer()).getData();
+            stride = model.getScanlineStride();
+            offset = raster.getDataBuffer().getOffset()
+                - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        }
+
+        int[] row = new int[width];
         for (int y = 0; y < height; y++) {
+            if (data != null) {
+                System.arraycopy(data, offset + y * stride, row, 0, width);
+            } else {
+                img.getRGB(0, y, width, 1, row, 0, width);
+            }
+            // ARGB to RGBA
             for (int x = 0; x < width; x++) {
-                int argb = img.getRGB(x, y);
-
-                // Extract color channels
-                int alpha = (argb >> 24) & 0xFF;
-                int red = (argb >> 16) & 0xFF;
-                int green = (argb >> 8) & 0xFF;
-                int blue = argb & 0xFF;
-
-                // Convert ARGB to LibGDX RGBA format
-                int rgba = (red << 24) | (green << 16) | (blue << 8) | alpha;
-                pixmap.drawPixel(x, y, rgba);
+                int argb = row[x];
+                row[x] = (argb << 8) | (argb >>> 24);
             }
+            pixels.put(row);
         }
 
         return pixmap;
@@ -45,11 +68,32 @@ public class GenerateLaTeXImage {
 
 
     public static Texture createLaTeXFormulaImage(String latex) throws ParseException {
+        return createLaTeXTexture(createLaTeXFormulaPixmap(latex));
+    }
+
+    /**
+     * Renders a formula without touching OpenGL, so it can run on any thread
+     *
+     * @param latex formula including the surrounding $
+     * @return the rendered formula
+     * @throws ParseException the formula is not valid LaTeX
+     */
+    public static Pixmap createLaTeXFormulaPixmap(String latex) throws ParseException {
         BufferedImage image = renderLaTexToImage("\\text{ " + latex + " }");
-        Pixmap map = bufferedImageToPixMap(image);
-        System.out.printf("\tpixmap size: %d, %d%n", map.getWidth(), map.getHeight());
+        return bufferedImageToPixMap(image);
+    }
+
+    /**
+     * Uploads a rendered formula, which must happen on the GL thread. The pixmap is disposed.
+     *
+     * @param map rendered formula
+     * @return texture of the formula
+     */
+    public static Texture createLaTeXTexture(Pixmap map) {
         Texture latexTexture = new Texture(map, true); // Enable mipmapping
         latexTexture.setFilter(Texture.TextureFilter.MipMapNearestLinear, Texture.TextureFilter.Linear);
+        // the pixels are on the GPU now
+        map.dispose();
 
         return latexTexture;
     }
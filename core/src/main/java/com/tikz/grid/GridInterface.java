@@ -3,16 +3,22 @@ package com.tikz.grid;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.tikz.ColorHolder;
+import com.tikz.FrameProfiler;
 import com.tikz.Main;
 import com.tikz.MainScreen;
 import com.tikz.ProgramState;
-import org.scilab.forge.jlatexmath.ParseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import static com.tikz.ProgramState.*;
 import static java.lang.Math.*;
@@ -20,15 +26,58 @@ import static java.lang.Math.*;
 public class GridInterface {
     public static final int ROWS = 6;
     public static final int COLS = 9;
+    // Grid units per cell of the spatial index
+    private static final float INDEX_CELL_SIZE = 4f;
+    // Screen pixels around the window that are still rendered, covers labels and arrowheads anchored off screen
+    private static final float CULL_MARGIN = 256f;
+    // Columns and rows of the screen cells used to track where queued labels are
+    private static final int LABEL_CELLS = 64;
+    // Edits the undo history keeps
+    private static final int HISTORY_CAPACITY = 10000;
     private final Main app;
     public float gridSpacing = 1;
     public float scaling = 1;
-    public Vector2 mouse = new Vector2();
+    /** Mouse in grid units, updated in place every frame, copy it to keep it */
+    public final Vec2 mouse = new Vec2();
     public Vector2 panning = new Vector2();
-    public Array<TikType> points = new Array<>();
+    /** Shapes in draw order. Use {@link #addPoint}, {@link #setPoints} and friends so the caches stay in sync */
+    public final ShapeStore points = new ShapeStore();
+    // the committed shapes drawn as wireframes, indexed when they are drawn so editing doesn't maintain it
+    private final SpatialIndex index = new SpatialIndex(INDEX_CELL_SIZE);
+    private final History history = new History(HISTORY_CAPACITY, historyBudget);
+    private final ExportCache export = new ExportCache();
     public TikType editing;
     public MainScreen screen;
     private float centerOffset = 0f;
+    private final LaTeXTextureCache latexTextures = new LaTeXTextureCache(latexTextureBudget);
+    private final Color tikColor = new Color();
+    private final Tessellation editingTessellation = new Tessellation();
+    // tessellations of the committed shapes drawn as wireframes, by shape index, created when first drawn
+    private Tessellation[] tessellations = new Tessellation[64];
+    private ShapeMeshes meshes;
+    private GridShader gridShader;
+    private final float[] bounds = new float[4];
+
+    // Scratch objects of the frame, so rendering doesn't allocate
+    private final Vector2 center = new Vector2();
+    private final Vector2 inputCenter = new Vector2();
+    private final Vector2 screenOrigin = new Vector2();
+    private final Vector2 screenEnd = new Vector2();
+    private final Vector2 screenPrevious = new Vector2();
+    private final Vector2 screenMouse = new Vector2();
+    private final Color shapeColor = new Color();
+    private final Array<Vector2> controlPoints = new Array<>();
+    private final TikType textPreview = new TikType(new Vec2(), DrawType.TEXT, "");
+    // committed shapes are read from the store into this one
+    private final TikType shape = new TikType(new Vec2(), new Vec2(), DrawType.LINE);
+
+    // Labels waiting for the text pass, with their screen position and image, or null to draw the text itself
+    private final Array<String> labels = new Array<>();
+    private final Array<ColorHolder> labelColors = new Array<>();
+    private final FloatArray labelPositions = new FloatArray();
+    private final Array<TextureRegion> labelImages = new Array<>();
+    // one bit per screen cell covered by a queued label, a row per long
+    private final long[] labelCells = new long[LABEL_CELLS];
 
     public ColorHolder selectedColor = colors[0].clone();
 
@@ -60,8 +109,7 @@ public class GridInterface {
     public void render(ShapeRenderer renderer) {
         // set the center location. Center of the screen minus the pan location and adding the menu if it's there
         centerOffset = screen.t.getWidth() / 2f + screen.tableOffset / 2;
-        final Vector2 center = new Vector2(Gdx.graphics.getWidth() / 2f + centerOffset,
-            Gdx.graphics.getHeight() / 2f).sub(panning);
+        center.set(Gdx.graphics.getWidth() / 2f + centerOffset, Gdx.graphics.getHeight() / 2f).sub(panning);
         renderer.set(wireframe ? ShapeRenderer.ShapeType.Line : ShapeRenderer.ShapeType.Filled);
 
         // set the gridSpacing and scaling
@@ -71,120 +119,188 @@ public class GridInterface {
         // set the zoom
         gridSpacing *= zoomLevel;
 
+        FrameProfiler profiler = app.profiler;
         if (showGrid) {
+            profiler.swap(FrameProfiler.Phase.GRID);
             drawGridLines(renderer, center);
         }
 
+        profiler.swap(FrameProfiler.Phase.INPUT);
         drawTikz();
 
         // Clear all points
         if (screen.notTyping() && (Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT)
             || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT))
             && Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE)) {
-            points.clear();
+            clearPoints();
         }
 
+        profiler.swap(FrameProfiler.Phase.SHAPES);
         if (showGrid) {
             renderer.setColor(Color.GOLD);
             renderer.circle(center.x, center.y, max(2f * scaling, 2));
         }
 
         // If we are not in light mode, and the color is black, render white, else render the selected color
-        renderer.setColor(!lightMode && selectedColor.name.equalsIgnoreCase("black") ? Color.WHITE : selectedColor.color);
+        renderer.setColor(!lightMode && selectedColor.name.equalsIgnoreCase("black") ? Color.WHITE : toGdxColor(selectedColor));
         renderer.circle(mouse.x * gridSpacing + center.x, mouse.y * gridSpacing + center.y, 2f);
 
-        renderAllPoints(renderer, center);
+        // wireframes show the triangles of the immediate mode renderer
+        if (wireframe) {
+            renderAllPoints(renderer, center);
+        } else {
+            renderRetained(renderer, center);
+        }
 
-        // Ctrl-Z to remove the latest point
+        profiler.swap(FrameProfiler.Phase.INPUT);
+        // Ctrl-Z to undo, Ctrl-Y or Ctrl-Shift-Z to redo
         if (Gdx.input.isKeyPressed(Input.Keys.CONTROL_LEFT) && screen.notTyping()) {
-            if (Gdx.input.isKeyJustPressed(Input.Keys.Z) && points.size > 0) {
-                points.peek().dispose();
-                points.removeIndex(points.size - 1);
+            boolean shift = Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT);
+            if (Gdx.input.isKeyJustPressed(Input.Keys.Y) || shift && Gdx.input.isKeyJustPressed(Input.Keys.Z)) {
+                redo();
+            } else if (Gdx.input.isKeyJustPressed(Input.Keys.Z)) {
+                undo();
             }
         }
 
+        profiler.swap(FrameProfiler.Phase.EDITING);
         renderEditingTik(renderer, center);
+        // the rest of the screen is drawn over the labels
+        profiler.swap(FrameProfiler.Phase.LABELS);
+        flushLabels(renderer);
+        latexTextures.endFrame();
     }
 
     private void drawGridLines(ShapeRenderer renderer, Vector2 center) {
-        final int viewable = 7;
-        int count = 10;
-        int halfLineCount = Math.round(viewable / zoomLevel) + (int) (panning.x / gridSpacing);
-
-        if (zoomLevel < 0.5f) {
-            count = 4;
+        if (gridShader == null) {
+            gridShader = new GridShader();
         }
+        renderer.end();
+        gridShader.draw(center.x, center.y, gridSpacing, lightMode ? Color.GRAY : Color.LIGHT_GRAY,
+            lightMode ? Color.LIGHT_GRAY : Color.GRAY);
+        renderer.begin();
+        renderer.set(wireframe ? ShapeRenderer.ShapeType.Line : ShapeRenderer.ShapeType.Filled);
+    }
 
-        // Vertical Lines
-        for (int i = -halfLineCount + (int) (2 * panning.x / gridSpacing); i < halfLineCount; i++) {
-            renderer.setColor(Color.GRAY);
-            // Draw Minor Grid Lines
-            for (int j = 0; j < count; j++) {
-                renderer.rectLine(new Vector2(center.x + gridSpacing * i + gridSpacing / count * j, 0),
-                    new Vector2(center.x + gridSpacing * i + gridSpacing / count * j, Gdx.graphics.getHeight()), 1f);
-            }
-            // Draw Major Grid Lines
-            renderer.setColor(lightMode ? Color.GRAY : Color.LIGHT_GRAY);
-            renderer.rectLine(new Vector2(center.x + gridSpacing * i, 0),
-                new Vector2(center.x + gridSpacing * i, Gdx.graphics.getHeight()), 2f);
-        }
-
-        // Horizontal Lines
-        halfLineCount = Math.round(viewable / 1.25f / zoomLevel) + (int) (panning.y / gridSpacing);
-        for (int i = -halfLineCount + (int) (2 * panning.y / gridSpacing); i < halfLineCount; i++) {
-            // Draw Minor Grid Lines
-            renderer.setColor(lightMode ? Color.LIGHT_GRAY : Color.GRAY);
-            for (int j = 0; j < count; j++) {
-                renderer.rectLine(new Vector2(0, center.y + gridSpacing * i + gridSpacing / count * j),
-                    new Vector2(Gdx.graphics.getWidth(), center.y + gridSpacing * i + gridSpacing / count * j), 1f);
+    private void renderAllPoints(ShapeRenderer renderer, Vector2 center) {
+        for (int i = index.size(); i < points.size(); i++) {
+            index.add(points.get(i, shape));
+        }
+        // only render the points that can be seen
+        float margin = CULL_MARGIN / gridSpacing;
+        int visible = index.query(-center.x / gridSpacing - margin, -center.y / gridSpacing - margin,
+            (Gdx.graphics.getWidth() - center.x) / gridSpacing + margin,
+            (Gdx.graphics.getHeight() - center.y) / gridSpacing + margin);
+        int[] ids = index.results();
+        for (int i = 0; i < visible; i++) {
+            TikType tik = points.get(ids[i], shape);
+            tik.tessellation = tessellation(ids[i]);
+            screenOrigin.setZero();
+            screenEnd.set(-1, -1);
+            if (tik.type != DrawType.MULTI_LINE) {
+                toScreen(tik.origin, center, screenOrigin);
+                toScreen(tik.endPoint, center, screenEnd);
             }
-            // Draw Major Grid Lines
-            renderer.setColor(lightMode ? Color.GRAY : Color.LIGHT_GRAY);
-            renderer.rectLine(new Vector2(0, center.y + gridSpacing * i),
-                new Vector2(Gdx.graphics.getWidth(), center.y + gridSpacing * i), 2f);
+            renderTikz(tik, tik.type, renderer, screenOrigin, screenEnd, center);
         }
     }
 
-    private void renderAllPoints(ShapeRenderer renderer, Vector2 center) {
-        // render every point
-        for (TikType tik : points) {
-            Vector2 o = new Vector2();
-            Vector2 e = new Vector2(-1, -1);
-            if (tik.type != DrawType.MULTI_LINE) {
-                o = tik.origin.cpy().scl(gridSpacing).add(center);
-                e = tik.endPoint.cpy().scl(gridSpacing).add(center);
+    /**
+     * Draws the committed shapes from their meshes, with the labels between the runs of geometry
+     */
+    private void renderRetained(ShapeRenderer renderer, Vector2 center) {
+        if (meshes == null) {
+            meshes = new ShapeMeshes(this);
+        }
+        meshes.update(points, gridSpacing, scaling, zoomLevel, lightMode);
+
+        // only draw what can be seen
+        float margin = CULL_MARGIN / gridSpacing;
+        float minX = -center.x / gridSpacing - margin;
+        float minY = -center.y / gridSpacing - margin;
+        float maxX = (Gdx.graphics.getWidth() - center.x) / gridSpacing + margin;
+        float maxY = (Gdx.graphics.getHeight() - center.y) / gridSpacing + margin;
+
+        renderer.end();
+        boolean bound = false;
+        Array<ShapeMeshes.Chunk> chunks = meshes.getChunks();
+        for (int c = 0; c < chunks.size; c++) {
+            ShapeMeshes.Chunk chunk = chunks.get(c);
+            float[] cb = chunk.bounds;
+            if (cb[0] <= maxX && cb[2] >= minX && cb[1] <= maxY && cb[3] >= minY) {
+                meshes.refine(points, c);
+            }
+            IntArray items = chunk.items;
+            for (int i = 0; i < items.size; i++) {
+                int item = items.get(i);
+                if (item >= 0) {
+                    float x = points.getOriginX(item);
+                    float y = points.getOriginY(item);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        queueLabel(points.getText(item), points.getColor(item),
+                            screenOrigin.set(x * gridSpacing + center.x, y * gridSpacing + center.y));
+                    }
+                    continue;
+                }
+                int run = -item - 1;
+                float[] b = chunk.runBounds.items;
+                int o = run * 4;
+                if (b[o] > maxX || b[o + 2] < minX || b[o + 1] > maxY || b[o + 3] < minY) {
+                    continue;
+                }
+                if (coversLabels(b[o], b[o + 1], b[o + 2], b[o + 3], center)) {
+                    flushLabels(renderer);
+                    bound = false;
+                }
+                if (!bound) {
+                    meshes.begin(renderer.getProjectionMatrix(), center.x, center.y);
+                    bound = true;
+                }
+                meshes.drawRun(chunk, run);
             }
-            renderTikz(tik, tik.type, renderer, o, e, center);
         }
+        renderer.begin();
+        renderer.set(ShapeRenderer.ShapeType.Filled);
     }
 
     private void renderEditingTik(ShapeRenderer renderer, Vector2 center) {
         // render the editing point
         if (editing != null && addingPoints) {
-            Vector2 o = new Vector2();
-            Vector2 e = new Vector2();
+            if (currentType != DrawType.TEXT) {
+                // the shape and its handles go over every label
+                flushLabels(renderer);
+            }
+            Vector2 o = screenOrigin.setZero();
+            Vector2 e = screenEnd.setZero();
 
             if (currentType != DrawType.MULTI_LINE) {
                 if (currentType != DrawType.BEZIER)
-                    editing.endPoint = mouse.cpy();
-                o = editing.origin.cpy().scl(gridSpacing).add(center);
-                e = editing.endPoint.cpy().scl(gridSpacing).add(center);
+                    editing.endPoint.set(mouse);
+                toScreen(editing.origin, center, o);
+                toScreen(editing.endPoint, center, e);
             }
             if (currentType != DrawType.TEXT) {
                 renderTikz(editing, currentType, renderer, o, e, center);
                 if (currentType == DrawType.MULTI_LINE) {
-                    Vector2 vPres = editing.vertices.peek().cpy().scl(gridSpacing).add(center);
-                    drawLine(renderer, vPres, mouse.cpy().scl(gridSpacing).add(center), editing.dashed,
+                    Vector2 vPres = toScreen(editing.vertices.get(editing.vertices.size() - 1), center, screenPrevious);
+                    drawLine(renderer, vPres, toScreen(mouse, center, screenMouse), editing.dashed,
                         editing.frontArrow, false, editing.lineThickness);
                 }
             } else {
-                editing = new TikType(mouse, currentType, text, editing.latexImg, editing.upscale);
-                editing.color = selectedColor;
-                o = editing.origin.cpy().scl(gridSpacing).add(center);
+                // the label follows the mouse until it is placed, so one preview is reused
+                textPreview.origin.set(mouse);
+                textPreview.text = text;
+                textPreview.color = selectedColor;
+                editing = textPreview;
+                toScreen(editing.origin, center, o);
                 renderTikz(editing, currentType, renderer, o, e, center);
             }
             if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
-                points.add(editing);
+                if (editing == textPreview) {
+                    editing = new TikType(mouse.cpy(), DrawType.TEXT, text);
+                    editing.color = selectedColor.clone();
+                }
+                addPoint(editing);
                 addingPoints = false;
             }
             if (addingPoints && currentType == DrawType.BEZIER) {
@@ -194,10 +310,13 @@ public class GridInterface {
     }
 
     private void handleBezierDrawing(ShapeRenderer renderer, Vector2 o, Vector2 e, Vector2 center) {
-        Array<Vector2> controlPoints = new Array<>();
-
-        for (Vector2 c : editing.vertices) {
-            controlPoints.add(c.cpy().scl(gridSpacing).add(center));
+        // screen locations of the control points, reusing the vectors of the last frame
+        while (controlPoints.size < editing.vertices.size()) {
+            controlPoints.add(new Vector2());
+        }
+        controlPoints.truncate(editing.vertices.size());
+        for (int i = 0; i < controlPoints.size; i++) {
+            toScreen(editing.vertices.get(i), center, controlPoints.get(i));
         }
 
         editing.dashed = dashed;
@@ -207,29 +326,29 @@ public class GridInterface {
         // Render the Bezier Control Points
         renderer.setColor(lightMode ? Color.GRAY : Color.GOLDENROD);
         renderer.circle(o.x, o.y, 5f * scaling);
-        Vector2 vPres = new Vector2(o);
+        Vector2 vPres = o;
         for (Vector2 c : controlPoints) {
             renderer.circle(c.x, c.y, 5f * scaling);
             drawDashedLine(renderer, vPres.x, vPres.y, c.x, c.y, 10f, 2f);
-            vPres = c.cpy();
+            vPres = c;
         }
         renderer.circle(e.x, e.y, 5f * scaling);
         drawDashedLine(renderer, vPres.x, vPres.y, e.x, e.y, 10f, 2f);
 
         // Drag the Bezier Control Points
-        Vector2 mouseReal = new Vector2(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY());
+        Vector2 mouseReal = screenMouse.set(Gdx.input.getX(), Gdx.graphics.getHeight() - Gdx.input.getY());
         if (((mouseReal.dst2(o) < 100 * scaling * scaling && draggingState == 0) || draggingState == 1) && (Gdx.input.isButtonPressed(Input.Buttons.LEFT))) {
-            editing.origin.set(mouse.cpy());
+            editing.origin.set(mouse);
             draggingState = 1;
         } else if (((mouseReal.dst2(e) < 100 * scaling * scaling && draggingState == 0) || draggingState == 2) && (Gdx.input.isButtonPressed(Input.Buttons.LEFT))) {
-            editing.endPoint.set(mouse.cpy());
+            editing.endPoint.set(mouse);
             draggingState = 2;
         }
 
         for (int i = 0; i < controlPoints.size; i++) {
             Vector2 c = controlPoints.get(i);
             if ((mouseReal.dst2(c) < 100 * scaling * scaling && draggingState == 0 || draggingState == i + 3) && Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
-                editing.vertices.get(i).set(mouse.cpy());
+                editing.vertices.get(i).set(mouse);
                 draggingState = i + 3;
             }
         }
@@ -239,102 +358,54 @@ public class GridInterface {
         }
     }
 
-    private void renderTikz(TikType tik, DrawType type, ShapeRenderer renderer, Vector2 o, Vector2 e, Vector2 center) {
-        renderer.setColor(new Color(
+    /**
+     * Computes the color a shape is drawn with, mixed with the background by its percentage
+     *
+     * @param out color to set
+     * @return out
+     */
+    Color shapeColor(TikType tik, Color out) {
+        return out.set(
             (tik.color.r != 0 || lightMode ? tik.color.r : 1) * tik.color.percentValue + (lightMode ? 1 : 0x00) * (1 - tik.color.percentValue),
             (tik.color.g != 0 || lightMode ? tik.color.g : 1) * tik.color.percentValue + (lightMode ? 1 : 0x00) * (1 - tik.color.percentValue),
-            (tik.color.b != 0 || lightMode ? tik.color.b : 1) * tik.color.percentValue + (lightMode ? 1 : 0x00) * (1 - tik.color.percentValue)
-                , 255));
+            (tik.color.b != 0 || lightMode ? tik.color.b : 1) * tik.color.percentValue + (lightMode ? 1 : 0x00) * (1 - tik.color.percentValue),
+            1);
+    }
+
+    private void renderTikz(TikType tik, DrawType type, ShapeRenderer renderer, Vector2 o, Vector2 e, Vector2 center) {
+        renderer.setColor(shapeColor(tik, shapeColor));
         switch (type) {
             case LINE:
-                drawLine(renderer, o, e, tik.dashed, tik.frontArrow, tik.backArrow, tik.lineThickness);
-                break;
             case CIRCLE:
-                drawCircle(renderer, o.x, o.y, o.dst(e), tik.dashed, tik.isFilled, tik.lineThickness);
-                break;
             case MULTI_LINE:
-                // draw the polygon
-                if (tik.isFilled) {
-                    if (tik.triangleLocations == null) {
-                        tik.triangulate();
-                    }
-                    for (int i = 0; i < tik.triangleLocations.length; i += 3) {
-                        int v1 = tik.triangleLocations[i] * 2;
-                        int v2 = tik.triangleLocations[i + 1] * 2;
-                        int v3 = tik.triangleLocations[i + 2] * 2;
-
-                        renderer.triangle(
-                            tik.flatVertices[v1] * gridSpacing + center.x, tik.flatVertices[v1 + 1] * gridSpacing + center.y,
-                            tik.flatVertices[v2] * gridSpacing + center.x, tik.flatVertices[v2 + 1] * gridSpacing + center.y,
-                            tik.flatVertices[v3] * gridSpacing + center.x, tik.flatVertices[v3 + 1] * gridSpacing + center.y
-                        );
-                    }
-                }
-                Vector2 vPres = tik.vertices.get(0).cpy().scl(gridSpacing).add(center);
-                if (tik.vertices.size > 1) {
-                    drawLine(renderer, vPres, tik.vertices.get(1).cpy().scl(gridSpacing).add(center), tik.dashed,
-                        false, tik.backArrow, tik.lineThickness);
-                    vPres = tik.vertices.get(1).cpy().scl(gridSpacing).add(center);
+            case BEZIER:
+                Tessellation tessellation;
+                if (tik == editing && addingPoints) {
+                    // the shape changes every frame while it is drawn, and open polygons continue to the mouse
+                    tik.invalidate();
+                    tessellation = editingTessellation.set(tik, tik.frontArrow && type != DrawType.MULTI_LINE,
+                        gridSpacing, scaling, zoomLevel);
+                } else {
+                    tessellation = tik.getTessellation(gridSpacing, scaling, zoomLevel);
                 }
-                if (tik.vertices.size > 2) {
-                    for (int i = 2; i < tik.vertices.size - 1; i++) {
-                        boolean isShort = vPres.cpy().sub(tik.vertices.get(i).cpy().scl(gridSpacing).add(center)).len() < 20f * scaling;
-                        if (isShort && tik.dashed) {
-                            if (i % 2 == 1) {
-                                drawLine(renderer, vPres, tik.vertices.get(i).cpy().scl(gridSpacing).add(center), tik.dashed,
-                                    false, false, tik.lineThickness);
-                            }
-                        } else
-                            drawLine(renderer, vPres, tik.vertices.get(i).cpy().scl(gridSpacing).add(center), tik.dashed,
-                                false, false, tik.lineThickness);
-                        vPres = tik.vertices.get(i).cpy().scl(gridSpacing).add(center);
-                    }
+                if (coversLabels(tik, center)) {
+                    flushLabels(renderer);
                 }
-                drawLine(renderer, vPres, tik.vertices.get(tik.vertices.size - 1).cpy().scl(gridSpacing).add(center),
-                    tik.dashed, tik.frontArrow && (!addingPoints || tik != editing), false, tik.lineThickness);
+                drawTessellation(renderer, tessellation, Math.max(getLineWidth(tik.lineThickness) * scaling * zoomLevel, 1f), center);
                 break;
             case TEXT:
-                // Check if a texture needs to be generated
-                if (tik.text.matches("^\\$.*\\$$") && tik.latexImg == null) {
-                    try {
-                        tik.latexImg = GenerateLaTeXImage.createLaTeXFormulaImage(tik.text);
-                    } catch (ParseException ignored) {
-                        System.err.println("Parse Error: " + tik.text);
-                        tik.latexImg = new Texture(Gdx.files.internal("Parsing Error.png"));
-                    }
-                }
-                renderer.end();
-                app.batch.begin();
-                app.batch.setProjectionMatrix(renderer.getProjectionMatrix());
-                // If there is no texture, render the text, otherwise render the image
-                if (tik.latexImg == null) {
-                    app.TikzTextFont.setColor(!lightMode && tik.color.name.equalsIgnoreCase("black") ? Color.WHITE : tik.color.color);
-                    app.TikzTextFont.draw(app.batch, tik.text, o.x, o.y + app.TikzTextFont.getCapHeight() / 2, 1f, Align.center, false);
-                } else {
-                    float sizeX = tik.latexImg.getWidth() / 512f * zoomLevel * scaling * (40f - 9f);
-                    float sizeY = tik.latexImg.getHeight() / 512f * zoomLevel * scaling * (40f - 9f);
-                    Vector2 o2 = o.cpy().sub(sizeX / 2, sizeY / 2);
-                    app.batch.setColor(!lightMode && tik.color.name.equalsIgnoreCase("black") ? Color.WHITE : tik.color.color);
-                    app.batch.draw(tik.latexImg, o2.x, o2.y, sizeX, sizeY);
-                }
-                app.batch.end();
-                renderer.begin();
-                renderer.set(wireframe ? ShapeRenderer.ShapeType.Line : ShapeRenderer.ShapeType.Filled);
+                queueLabel(tik.text, tik.color, o);
                 break;
             case DROPPED_POLYGON:
                 // draw the polygon
-                Vector2 vOld = editing.vertices.get(0).cpy().add(mouse).scl(gridSpacing).add(center);
-                for (int i = 1; i < editing.vertices.size; i++) {
-                    drawLine(renderer, vOld, editing.vertices.get(i).cpy().add(mouse).scl(gridSpacing).add(center), dashed, frontArrow, backArrow, lineThickness);
-                    vOld = editing.vertices.get(i).cpy().add(mouse).scl(gridSpacing).add(center);
-                }
-                break;
-            case BEZIER:
-                Array<Vector2> points = new Array<>();
-                for (Vector2 p : tik.vertices) {
-                    points.add(p.cpy().scl(gridSpacing).add(center));
+                Vector2 vOld = screenPrevious;
+                Vector2 vNew = screenMouse;
+                toScreen(editing.vertices.get(0), center, vOld).add(mouse.x * gridSpacing, mouse.y * gridSpacing);
+                for (int i = 1; i < editing.vertices.size(); i++) {
+                    toScreen(editing.vertices.get(i), center, vNew).add(mouse.x * gridSpacing, mouse.y * gridSpacing);
+                    drawLine(renderer, vOld, vNew, dashed, frontArrow, backArrow, lineThickness);
+                    vOld.set(vNew);
                 }
-                drawBezier(renderer, o, e, tik.dashed, tik.frontArrow, tik.backArrow, points, lineThickness);
                 break;
             default:
                 throw new IllegalDrawType("Unknown Draw Type");
@@ -345,10 +416,10 @@ public class GridInterface {
      * Enable drawing the tikz geometry using the mouse inputs
      */
     private void drawTikz() {
-        final Vector2 center = new Vector2(Gdx.graphics.getWidth() / 2f, Gdx.graphics.getHeight() / 2f).sub(panning);
+        final Vector2 center = inputCenter.set(Gdx.graphics.getWidth() / 2f, Gdx.graphics.getHeight() / 2f).sub(panning);
         // do inputs stuff
-        mouse = new Vector2(Gdx.input.getX() - screen.t.getWidth() / 2 - screen.tableOffset / 2, Gdx.graphics.getHeight() - Gdx.input.getY());
-        mouse.sub(center).scl(1 / gridSpacing);
+        mouse.set(Gdx.input.getX() - screen.t.getWidth() / 2 - screen.tableOffset / 2, Gdx.graphics.getHeight() - Gdx.input.getY());
+        mouse.sub(center.x, center.y).scl(1 / gridSpacing);
 
         if (snapGrid) {
             mouse.x = (float) Math.round(mouse.x * 10f) / 10f;
@@ -362,7 +433,7 @@ public class GridInterface {
                 case CIRCLE:
                     if (!addingPoints) {
                         addingPoints = true;
-                        editing = new TikType(mouse, mouse.cpy().add(0.01f, 0.01f), currentType);
+                        editing = new TikType(mouse.cpy(), mouse.cpy().add(0.01f, 0.01f), currentType);
                         editing.color = selectedColor.clone();
                         editing.dashed = dashed;
                         editing.frontArrow = frontArrow;
@@ -373,23 +444,23 @@ public class GridInterface {
                     } else {
                         addingPoints = false;
                         editing.endPoint = mouse.cpy();
-                        points.add(editing);
+                        addPoint(editing);
                         editing = null;
                     }
                     break;
                 case TEXT:
                     if (addingPoints) {
-                        editing = new TikType(mouse, currentType, text);
+                        editing = new TikType(mouse.cpy(), currentType, text);
                         editing.color = selectedColor.clone();
-                        points.add(editing);
+                        addPoint(editing);
                     }
                     break;
                 case MULTI_LINE:
                     if (!addingPoints) {
                         addingPoints = true;
-                        editing = new TikType(new Array<>(), currentType);
+                        editing = new TikType(new ArrayList<>(), currentType);
                         editing.color = selectedColor.clone();
-                        editing.vertices.add(mouse);
+                        editing.vertices.add(mouse.cpy());
                         editing.dashed = dashed;
                         editing.frontArrow = frontArrow;
                         editing.backArrow = backArrow;
@@ -402,14 +473,14 @@ public class GridInterface {
                             editing.backArrow = false;
                             editing.isFilled = isFilled;
                             editing.lineThickness = lineThickness;
-                            points.add(editing);
+                            addPoint(editing);
                         } else
-                            editing.vertices.add(mouse);
+                            editing.vertices.add(mouse.cpy());
                     }
                     break;
                 case DROPPED_POLYGON:
-                    Array<Vector2> verts = new Array<>(editing.vertices.size);
-                    for (Vector2 v : editing.vertices) {
+                    ArrayList<Vec2> verts = new ArrayList<>(editing.vertices.size());
+                    for (Vec2 v : editing.vertices) {
                         verts.add(v.cpy().add(mouse));
                     }
                     TikType temp = new TikType(verts, DrawType.MULTI_LINE);
@@ -419,16 +490,16 @@ public class GridInterface {
                     temp.backArrow = editing.backArrow;
                     temp.isFilled = isFilled;
                     temp.lineThickness = lineThickness;
-                    points.add(temp);
+                    addPoint(temp);
                     break;
                 case BEZIER:
                     if (!addingPoints) {
                         addingPoints = true;
-                        Vector2[] v = new Vector2[bezierControlPointCount];
+                        Vec2[] v = new Vec2[bezierControlPointCount];
                         for (int i = 0; i < bezierControlPointCount; i++) {
                             v[i] = mouse.cpy().add(2f / (bezierControlPointCount + 1) * (i + 1), (float) pow(-1, i));
                         }
-                        editing = new TikType(new Vector2(mouse.cpy()), mouse.cpy().add(2, 0), DrawType.BEZIER, v);
+                        editing = new TikType(mouse.cpy(), mouse.cpy().add(2, 0), DrawType.BEZIER, v);
                         editing.color = selectedColor.clone();
                         editing.dashed = dashed;
                         editing.frontArrow = frontArrow;
@@ -441,8 +512,8 @@ public class GridInterface {
             }
         } else if (Gdx.input.isButtonJustPressed(1)) {
             if ((currentType == DrawType.MULTI_LINE)
-                && editing.vertices.size > 1) {
-                if (editing.vertices.size == 2) {
+                && editing.vertices.size() > 1) {
+                if (editing.vertices.size() == 2) {
                     TikType temp = editing;
                     editing = new TikType(temp.vertices.get(0), temp.vertices.get(1), DrawType.LINE);
                     editing.backArrow = temp.backArrow;
@@ -451,7 +522,7 @@ public class GridInterface {
                     editing.isFilled = isFilled;
                     editing.color = selectedColor.clone();
                 }
-                points.add(editing);
+                addPoint(editing);
             } else if (currentType == DrawType.DROPPED_POLYGON) {
                 setDrawType(DrawType.MULTI_LINE);
             }
@@ -459,23 +530,361 @@ public class GridInterface {
         }
     }
 
-    public void drawCircle(ShapeRenderer shapeRenderer, float x, float y, float radius, boolean isDashed, boolean isFilled,
-                           DrawType.LineThickness thickness) {
-        if (isFilled) {
-            shapeRenderer.circle(x, y, radius);
+    /**
+     * Queues a label for the text pass, so labels are drawn together in one batch instead of switching between
+     * the shape renderer and the batch for each label
+     *
+     * @param text  text or formula of the label
+     * @param color color of the label
+     * @param o     screen location of the label
+     */
+    private void queueLabel(String text, ColorHolder color, Vector2 o) {
+        TextureRegion latexImg = latexTextures.get(text);
+        float halfWidth;
+        float halfHeight;
+        if (latexImg == null) {
+            // no glyph is wider than a line is high, which saves laying out the text
+            halfHeight = app.TikzTextFont.getLineHeight();
+            halfWidth = text.length() * halfHeight / 2;
+        } else {
+            halfWidth = latexImg.getRegionWidth() / 512f * zoomLevel * scaling * (40f - 9f) / 2;
+            halfHeight = latexImg.getRegionHeight() / 512f * zoomLevel * scaling * (40f - 9f) / 2;
+        }
+        labels.add(text);
+        labelColors.add(color);
+        labelPositions.add(o.x, o.y);
+        labelImages.add(latexImg);
+
+        int minCol = labelCell(o.x - halfWidth, Gdx.graphics.getWidth());
+        int maxCol = labelCell(o.x + halfWidth, Gdx.graphics.getWidth());
+        int minRow = labelCell(o.y - halfHeight, Gdx.graphics.getHeight());
+        int maxRow = labelCell(o.y + halfHeight, Gdx.graphics.getHeight());
+        long columns = (-1L >>> (LABEL_CELLS - 1 - maxCol)) & (-1L << minCol);
+        for (int row = minRow; row <= maxRow; row++) {
+            labelCells[row] |= columns;
+        }
+    }
+
+    /**
+     * Tests whether a shape may cover a queued label, in which case the label must be drawn first to stay below it
+     */
+    private boolean coversLabels(TikType tik, Vector2 center) {
+        if (labels.isEmpty()) {
+            return false;
+        }
+        tik.getBounds(bounds);
+        // arrowheads and line width reach past the points of the shape
+        float margin = 20f * scaling * zoomLevel / gridSpacing;
+        return coversLabels(bounds[0] - margin, bounds[1] - margin, bounds[2] + margin, bounds[3] + margin, center);
+    }
+
+    /**
+     * Tests whether an area in grid units may cover a queued label
+     */
+    private boolean coversLabels(float minX, float minY, float maxX, float maxY, Vector2 center) {
+        if (labels.isEmpty()) {
+            return false;
+        }
+        int minCol = labelCell(minX * gridSpacing + center.x, Gdx.graphics.getWidth());
+        int maxCol = labelCell(maxX * gridSpacing + center.x, Gdx.graphics.getWidth());
+        int minRow = labelCell(minY * gridSpacing + center.y, Gdx.graphics.getHeight());
+        int maxRow = labelCell(maxY * gridSpacing + center.y, Gdx.graphics.getHeight());
+        long columns = (-1L >>> (LABEL_CELLS - 1 - maxCol)) & (-1L << minCol);
+        for (int row = minRow; row <= maxRow; row++) {
+            if ((labelCells[row] & columns) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int labelCell(float position, float screenSize) {
+        return (int) clamp(position / screenSize * LABEL_CELLS, 0, LABEL_CELLS - 1);
+    }
+
+    /**
+     * Draws the queued labels in one batch, between two runs of the shape renderer
+     */
+    private void flushLabels(ShapeRenderer renderer) {
+        if (labels.isEmpty()) {
             return;
         }
-        int segments = Math.max(1, (int) (6 * (float) Math.cbrt(radius)));
-        Vector2 center = new Vector2(x, y);
-        Vector2 vPres = new Vector2(x + radius, y);
-        double angularSeparation = 2 * PI / segments;
-        for (int i = 0; i <= segments; i++) {
-            double alpha = angularSeparation * i;
-            Vector2 newPoint = center.cpy().add((float) (radius * cos(alpha)), (float) (radius * sin(alpha)));
-            if ((angularSeparation * radius > 30f || i % 2 == 0) || !isDashed)
-                drawLine(shapeRenderer, vPres, newPoint, isDashed, false, false, thickness);
-            vPres = newPoint.cpy();
+        FrameProfiler.Phase phase = app.profiler.swap(FrameProfiler.Phase.LABELS);
+        // the retained shapes are drawn with the renderer stopped
+        boolean drawing = renderer.isDrawing();
+        if (drawing) {
+            renderer.end();
+        }
+        app.batch.setProjectionMatrix(renderer.getProjectionMatrix());
+        app.batch.begin();
+        boolean distanceField = false;
+        for (int i = 0; i < labels.size; i++) {
+            String text = labels.get(i);
+            ColorHolder labelColor = labelColors.get(i);
+            TextureRegion latexImg = labelImages.get(i);
+            float x = labelPositions.get(i * 2);
+            float y = labelPositions.get(i * 2 + 1);
+            Color color = !lightMode && labelColor.name.equalsIgnoreCase("black") ? Color.WHITE : toGdxColor(labelColor);
+            // If there is no texture, render the text, otherwise render the image.
+            // Formulas show their source as a placeholder while they are rendered in the background
+            // the shader only changes where the texture changes too, which flushes the batch anyway
+            if ((latexImg == null) != distanceField && app.distanceFieldShader != null) {
+                distanceField = latexImg == null;
+                app.batch.setShader(distanceField ? app.distanceFieldShader : null);
+                if (distanceField) {
+                    // the width of the smoothed edge, so it stays about a pixel wide at every scale
+                    app.distanceFieldShader.setUniformf("u_smoothing",
+                        Main.DISTANCE_FIELD_SPREAD * app.TikzTextFont.getScaleX());
+                }
+            }
+            if (latexImg == null) {
+                app.TikzTextFont.setColor(color);
+                app.TikzTextFont.draw(app.batch, text, x, y + app.TikzTextFont.getCapHeight() / 2, 1f, Align.center, false);
+            } else {
+                float sizeX = latexImg.getRegionWidth() / 512f * zoomLevel * scaling * (40f - 9f);
+                float sizeY = latexImg.getRegionHeight() / 512f * zoomLevel * scaling * (40f - 9f);
+                app.batch.setColor(color);
+                app.batch.draw(latexImg, x - sizeX / 2, y - sizeY / 2, sizeX, sizeY);
+            }
+        }
+        app.batch.end();
+        app.batch.setShader(null);
+        if (drawing) {
+            renderer.begin();
+            renderer.set(wireframe ? ShapeRenderer.ShapeType.Line : ShapeRenderer.ShapeType.Filled);
         }
+
+        labels.clear();
+        labelColors.clear();
+        labelPositions.clear();
+        labelImages.clear();
+        Arrays.fill(labelCells, 0);
+        app.profiler.swap(phase);
+    }
+
+    /**
+     * Adds a copy of a shape to the document, later changes to the shape don't change the document
+     */
+    public void addPoint(TikType tik) {
+        points.add(tik);
+        history.recordAdd();
+        shapeAdded(tik);
+    }
+
+    /**
+     * Removes every point, which can be undone
+     */
+    public void clearPoints() {
+        replacePoints(new ShapeStore());
+    }
+
+    /**
+     * Replaces every point, e.g. with imported shapes
+     *
+     * @param tikzShapes new points in draw order
+     */
+    public void setPoints(Iterable<TikType> tikzShapes) {
+        ShapeStore store = new ShapeStore();
+        store.addAll(tikzShapes);
+        replacePoints(store);
+    }
+
+    /**
+     * Replaces every point with the shapes of a store, without copying them. The old points are kept by the
+     * undo history.
+     *
+     * @param tikzShapes new points in draw order, the store is taken by the grid and must not be used again
+     */
+    public void setPoints(ShapeStore tikzShapes) {
+        replacePoints(tikzShapes);
+    }
+
+    /**
+     * Reverts the last edit of the points
+     */
+    public void undo() {
+        if (!history.canUndo()) {
+            return;
+        }
+        if (history.peekUndo() == History.Command.ADD) {
+            int last = points.size() - 1;
+            if (points.getType(last) == DrawType.TEXT) {
+                latexTextures.release(points.getText(last));
+            }
+            history.undo(points);
+            indexChanged(last);
+            tessellationsChanged(last);
+            export.shapesChanged(last);
+            if (meshes != null) meshes.shapesChanged(last);
+        } else {
+            releaseFormulas();
+            history.undo(points);
+            pointsReplaced();
+        }
+    }
+
+    /**
+     * Applies the last undone edit of the points again
+     */
+    public void redo() {
+        if (!history.canRedo()) {
+            return;
+        }
+        if (history.peekRedo() == History.Command.ADD) {
+            history.redo(points);
+            shapeAdded(points.get(points.size() - 1, shape));
+        } else {
+            releaseFormulas();
+            history.redo(points);
+            pointsReplaced();
+        }
+    }
+
+    /**
+     * Converts the points to Tikz code, only converting the shapes changed since the last export
+     *
+     * @return Tikz code of every point
+     */
+    public String exportTikz() {
+        return export.convert(points);
+    }
+
+    /**
+     * Streams the Tikz code of the points, only converting the shapes changed since the last export
+     *
+     * @param output where the Tikz code is written, e.g. a {@link java.io.Writer}
+     * @throws IOException the output could not be written to
+     */
+    public void writeTikz(Appendable output) throws IOException {
+        export.write(points, output);
+    }
+
+    private void replacePoints(ShapeStore tikzShapes) {
+        releaseFormulas();
+        history.replace(points, tikzShapes);
+        pointsReplaced();
+    }
+
+    /**
+     * Updates the meshes and formulas for a shape added at the end of the points
+     */
+    private void shapeAdded(TikType tik) {
+        tessellationsChanged(points.size() - 1);
+        export.shapesChanged(points.size() - 1);
+        if (meshes != null) meshes.shapesChanged(points.size() - 1);
+        if (tik.type == DrawType.TEXT) {
+            latexTextures.retain(tik.text);
+        }
+    }
+
+    /**
+     * @return the cached tessellation of a committed shape, which the shape rebuilds if it doesn't match the view
+     */
+    private Tessellation tessellation(int shape) {
+        if (shape >= tessellations.length) {
+            tessellations = Arrays.copyOf(tessellations, Math.max(shape + 1, tessellations.length * 3 / 2));
+        }
+        if (tessellations[shape] == null) {
+            tessellations[shape] = new Tessellation();
+        }
+        return tessellations[shape];
+    }
+
+    /**
+     * Drops the indexed shapes from a shape on, called after shapes are removed or replaced
+     *
+     * @param from first changed shape
+     */
+    private void indexChanged(int from) {
+        if (from == 0) {
+            index.clear();
+            return;
+        }
+        while (index.size() > from) {
+            index.removeLast();
+        }
+    }
+
+    /**
+     * Drops the tessellations from a shape on, called after shapes are added, removed or replaced
+     *
+     * @param from first changed shape
+     */
+    private void tessellationsChanged(int from) {
+        if (from == 0) {
+            // every shape changed, so the memory isn't kept for shapes that may never be drawn again
+            Arrays.fill(tessellations, null);
+            return;
+        }
+        for (int i = from; i < tessellations.length; i++) {
+            if (tessellations[i] != null) {
+                tessellations[i].invalidate();
+            }
+        }
+    }
+
+    /**
+     * Releases the formulas of every point before they are replaced, their textures stay cached within the budget
+     */
+    private void releaseFormulas() {
+        for (int i = 0; i < points.size(); i++) {
+            if (points.getType(i) == DrawType.TEXT) {
+                latexTextures.release(points.getText(i));
+            }
+        }
+    }
+
+    /**
+     * Invalidates the index, meshes and formulas after every point changed
+     */
+    private void pointsReplaced() {
+        indexChanged(0);
+        tessellationsChanged(0);
+        export.shapesChanged(0);
+        if (meshes != null) meshes.shapesChanged(0);
+        for (int i = 0; i < points.size(); i++) {
+            if (points.getType(i) == DrawType.TEXT) {
+                latexTextures.retain(points.getText(i));
+            }
+        }
+    }
+
+    /**
+     * Converts a point in grid units to screen coordinates
+     *
+     * @param p      point in grid units
+     * @param center screen location of the grid origin
+     * @param out    vector to set
+     * @return out, the screen location of the point
+     */
+    private Vector2 toScreen(Vec2 p, Vector2 center, Vector2 out) {
+        return out.set(p.x * gridSpacing + center.x, p.y * gridSpacing + center.y);
+    }
+
+    /**
+     * Draws cached geometry moved from grid units to the screen
+     *
+     * @param lineWidth width of the lines in pixels
+     * @param center    screen location of the grid origin
+     */
+    private void drawTessellation(ShapeRenderer renderer, Tessellation tessellation, float lineWidth, Vector2 center) {
+        float[] t = tessellation.triangles;
+        for (int i = 0, n = tessellation.triangleCount * 6; i < n; i += 6) {
+            renderer.triangle(
+                t[i] * gridSpacing + center.x, t[i + 1] * gridSpacing + center.y,
+                t[i + 2] * gridSpacing + center.x, t[i + 3] * gridSpacing + center.y,
+                t[i + 4] * gridSpacing + center.x, t[i + 5] * gridSpacing + center.y);
+        }
+        float[] l = tessellation.lines;
+        for (int i = 0, n = tessellation.lineCount * 4; i < n; i += 4) {
+            renderer.rectLine(
+                l[i] * gridSpacing + center.x, l[i + 1] * gridSpacing + center.y,
+                l[i + 2] * gridSpacing + center.x, l[i + 3] * gridSpacing + center.y, lineWidth);
+        }
+    }
+
+    private Color toGdxColor(ColorHolder color) {
+        return tikColor.set(color.r, color.g, color.b, 1f);
     }
 
     public void drawLine(ShapeRenderer shapeRenderer, Vector2 origin, Vector2 end, boolean isDashed, boolean frontArrow
@@ -552,74 +961,25 @@ public class GridInterface {
         float directionY = (y2 - y1) / distance;
 
         // Draw dots along the line at regular intervals
-        Vector2 vPres = new Vector2(x1, y1);
+        float x = x1;
+        float y = y1;
         for (int i = 0; i < numDots; i++) {
-            shapeRenderer.rectLine(vPres, vPres.cpy().add(dashSpacing * directionX / 2,
-                dashSpacing * directionY / 2), Math.max(lineWidth * scaling * zoomLevel, 1f));
-            vPres.add(dashSpacing * directionX, dashSpacing * directionY);
-        }
-
-        shapeRenderer.rectLine(vPres.x, vPres.y, x2, y2, Math.max(lineWidth * scaling * zoomLevel, 1f));
-    }
-
-    public void drawBezier(ShapeRenderer renderer, Vector2 start, Vector2 end, boolean isDashed, boolean frontArrow,
-                           boolean backArrow, Array<Vector2> controlPoints, DrawType.LineThickness thickness) {
-        int lineCount = 50;
-        Vector2 vPres = start.cpy();
-        Array<Vector2> vectors = new Array<>();
-        vectors.add(start);
-        for (Vector2 controlPoint : controlPoints) {
-            vectors.add(controlPoint);
-        }
-        vectors.add(end);
-        int n = vectors.size - 1;
-        float t = 1f / lineCount;
-        Vector2 point = new Vector2();
-        for (int i = 0; i <= n; i++) {
-            double scl = binomialCoefficient(n, i) * pow(1 - t, n - i) * pow(t, i);
-            point.add(vectors.get(i).cpy().scl((float) scl));
-        }
-        drawLine(renderer, vPres, point, false, false, backArrow, thickness);
-        vPres = point.cpy();
-
-        // \sum_{i=0}^n*\frac{n!}{i!(n-i)!}(1-t)^{n-i}t^iP_i
-        for (int line = 1; line < lineCount; line++) {
-            t = (float) line / lineCount;
-            point = new Vector2();
-            for (int i = 0; i <= n; i++) {
-                double scl = binomialCoefficient(n, i) * pow(1 - t, n - i) * pow(t, i);
-                point.add(vectors.get(i).cpy().scl((float) scl));
-            }
-            if (line % 2 == 0 || !isDashed)
-                drawLine(renderer, vPres, point, false, false, false, thickness);
-            vPres = point.cpy();
-        }
-        t = 1;
-        point = new Vector2();
-        for (int i = 0; i <= n; i++) {
-            double scl = binomialCoefficient(n, i) * pow(1 - t, n - i) * pow(t, i);
-            point.add(vectors.get(i).cpy().scl((float) scl));
+            shapeRenderer.rectLine(x, y, x + dashSpacing * directionX / 2,
+                y + dashSpacing * directionY / 2, Math.max(lineWidth * scaling * zoomLevel, 1f));
+            x += dashSpacing * directionX;
+            y += dashSpacing * directionY;
         }
-        drawLine(renderer, vPres, point, false, frontArrow, false, thickness);
-    }
 
-    private int binomialCoefficient(int n, int i) {
-        return factorial(n) / (factorial(i) * factorial(n - i));
-    }
-
-    private int factorial(int n) {
-        int fac = 1;
-        if (n == 0)
-            return 1;
-        for (int i = 1; i <= n; i++) {
-            fac *= i;
-        }
-        return fac;
+        shapeRenderer.rectLine(x, y, x2, y2, Math.max(lineWidth * scaling * zoomLevel, 1f));
     }
 
     public void dispose() {
-        for (TikType tik : points) {
-            tik.dispose();
+        latexTextures.dispose();
+        if (meshes != null) {
+            meshes.dispose();
+        }
+        if (gridShader != null) {
+            gridShader.dispose();
         }
         System.out.println("Disposing of Textures");
     }
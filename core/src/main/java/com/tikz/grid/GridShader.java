@@ -0,0 +1,99 @@
+package com.tikz.grid;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Draws the background grid with one full screen quad. The fragment shader finds the distance of every pixel to
+ * the nearest major and minor line, so the cost doesn't depend on the zoom or how many lines are visible.
+ */
+public class GridShader implements Disposable {
+    // below this many pixels between minor lines, a cell is divided in 4 instead of 10
+    private static final float MIN_MINOR_SPACING = 6f;
+
+    private static final String VERTEX = ""
+        + "attribute vec4 a_position;\n"
+        + "uniform vec2 u_screenSize;\n"
+        + "varying vec2 v_position;\n"
+        + "void main() {\n"
+        + "    v_position = (a_position.xy * 0.5 + 0.5) * u_screenSize;\n"
+        + "    gl_Position = a_position;\n"
+        + "}\n";
+
+    private static final String FRAGMENT = ""
+        + "#ifdef GL_ES\n"
+        + "precision highp float;\n"
+        + "#endif\n"
+        + "varying vec2 v_position;\n"
+        + "uniform vec2 u_center;\n"
+        + "uniform float u_spacing;\n"
+        + "uniform float u_minorSpacing;\n"
+        + "uniform vec4 u_majorColor;\n"
+        + "uniform vec4 u_minorColor;\n"
+        // coverage of a line of the given width repeating every spacing pixels
+        + "float lines(vec2 p, float spacing, float width) {\n"
+        + "    vec2 d = abs(mod(p + spacing * 0.5, spacing) - spacing * 0.5);\n"
+        + "    vec2 coverage = clamp(width * 0.5 + 0.5 - d, 0.0, 1.0);\n"
+        + "    return max(coverage.x, coverage.y);\n"
+        + "}\n"
+        + "void main() {\n"
+        + "    vec2 p = v_position - u_center;\n"
+        + "    float major = lines(p, u_spacing, 2.0);\n"
+        + "    float minor = lines(p, u_minorSpacing, 1.0);\n"
+        + "    vec4 color = major > 0.0 ? u_majorColor : u_minorColor;\n"
+        + "    gl_FragColor = vec4(color.rgb, color.a * max(major, minor));\n"
+        + "}\n";
+
+    private final ShaderProgram shader;
+    private final Mesh quad;
+
+    public GridShader() {
+        shader = new ShaderProgram(VERTEX, FRAGMENT);
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Could not compile the grid shader: " + shader.getLog());
+        }
+        quad = new Mesh(true, 4, 6,
+            new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE));
+        quad.setVertices(new float[]{-1, -1, 1, -1, 1, 1, -1, 1});
+        quad.setIndices(new short[]{0, 1, 2, 2, 3, 0});
+    }
+
+    /**
+     * Draws the grid over the whole screen, which must not be in a batch or shape renderer
+     *
+     * @param centerX     screen location of the grid origin
+     * @param centerY     screen location of the grid origin
+     * @param gridSpacing pixels between major lines
+     * @param majorColor  color of the lines at whole grid units
+     * @param minorColor  color of the lines between them
+     */
+    public void draw(float centerX, float centerY, float gridSpacing, Color majorColor, Color minorColor) {
+        // fewer minor lines when zoomed out, so they don't merge into a solid color
+        int divisions = gridSpacing / 10 >= MIN_MINOR_SPACING ? 10 : 4;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformf("u_screenSize", Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        shader.setUniformf("u_center", centerX, centerY);
+        shader.setUniformf("u_spacing", gridSpacing);
+        shader.setUniformf("u_minorSpacing", gridSpacing / divisions);
+        shader.setUniformf("u_majorColor", majorColor);
+        shader.setUniformf("u_minorColor", minorColor);
+        quad.render(shader, GL20.GL_TRIANGLES);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        quad.dispose();
+    }
+}
@@ -0,0 +1,164 @@
+package com.tikz.grid;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Packs rendered formulas into a few large textures, so a batch can draw all labels without switching textures.
+ * New pages are added as the pages fill up. Removed formulas leave holes, which are reclaimed by repacking the
+ * remaining formulas into fresh pages once most of the pages are unused.
+ */
+public class LaTeXAtlas implements Disposable {
+    public static final int PAGE_SIZE = 2048;
+    // transparent space around every formula, so neighbours don't bleed into the smaller mipmaps
+    private static final int PADDING = 8;
+    // RGBA8888 with mipmaps
+    private static final long PAGE_BYTES = (long) PAGE_SIZE * PAGE_SIZE * 4 * 4 / 3;
+
+    private PixmapPacker packer;
+    private final Array<Region> regions = new Array<>();
+    private final Array<Region> pending = new Array<>();
+    private long usedBytes = 0;
+    private int nextName = 0;
+
+    private static class Region extends TextureRegion {
+        String name;
+        long bytes;
+    }
+
+    /**
+     * @return whether the pixmap is small enough for a page
+     */
+    public static boolean fits(Pixmap pixmap) {
+        return pixmap.getWidth() + PADDING * 2 <= PAGE_SIZE && pixmap.getHeight() + PADDING * 2 <= PAGE_SIZE;
+    }
+
+    /**
+     * Copies a pixmap into the atlas. Its region gets a texture at the next {@link #update()}.
+     *
+     * @param pixmap pixmap that {@link #fits(Pixmap)}, it is not disposed
+     * @return region of the pixmap in the atlas
+     */
+    public TextureRegion add(Pixmap pixmap) {
+        Region region = new Region();
+        region.bytes = (long) pixmap.getWidth() * pixmap.getHeight() * 4 * 4 / 3;
+        pack(region, pixmap);
+        return region;
+    }
+
+    private void pack(Region region, Pixmap pixmap) {
+        if (packer == null) {
+            packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, false,
+                new PixmapPacker.SkylineStrategy());
+        }
+        // the packer can't forget names, so every packing gets a new one
+        region.name = String.valueOf(nextName++);
+        packer.pack(region.name, pixmap);
+        regions.add(region);
+        pending.add(region);
+        usedBytes += region.bytes;
+    }
+
+    /**
+     * Frees the space of a region returned by {@link #add(Pixmap)}. The space is reused when the atlas is
+     * repacked.
+     */
+    public void remove(TextureRegion textureRegion) {
+        Region region = (Region) textureRegion;
+        if (!regions.removeValue(region, true)) {
+            throw new IllegalStateException("The region is not in the atlas");
+        }
+        pending.removeValue(region, true);
+        usedBytes -= region.bytes;
+        if (regions.isEmpty()) {
+            clear();
+        }
+    }
+
+    /**
+     * Uploads the formulas added since the last update, must be called on the GL thread before drawing them
+     */
+    public void update() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        packer.updatePageTextures(Texture.TextureFilter.MipMapNearestLinear, Texture.TextureFilter.Linear, true);
+        for (Region region : pending) {
+            Rectangle rect = packer.getRect(region.name);
+            region.setTexture(packer.getPage(region.name).getTexture());
+            region.setRegion((int) rect.x, (int) rect.y, (int) rect.width, (int) rect.height);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Repacks the formulas into fresh pages if more than half of the pages is unused
+     */
+    public void compact() {
+        if (packer == null || packer.getPages().size < 2 || usedBytes * 2 > getPageBytes()) {
+            return;
+        }
+        PixmapPacker old = packer;
+        packer = null;
+        pending.clear();
+        usedBytes = 0;
+        Array<Region> live = new Array<>(regions);
+        regions.clear();
+        for (Region region : live) {
+            Rectangle rect = old.getRect(region.name);
+            Pixmap pixels = new Pixmap((int) rect.width, (int) rect.height, Pixmap.Format.RGBA8888);
+            pixels.setBlending(Pixmap.Blending.None);
+            pixels.drawPixmap(old.getPage(region.name).getPixmap(), 0, 0,
+                (int) rect.x, (int) rect.y, (int) rect.width, (int) rect.height);
+
+            // the regions keep their identity, so the formulas holding them draw from the new pages
+            pack(region, pixels);
+            pixels.dispose();
+        }
+        update();
+        dispose(old);
+    }
+
+    /**
+     * @return memory of the pages, including the holes left by removed formulas
+     */
+    public long getPageBytes() {
+        return packer == null ? 0 : packer.getPages().size * PAGE_BYTES;
+    }
+
+    /**
+     * Removes every formula and frees the pages
+     */
+    public void clear() {
+        regions.clear();
+        pending.clear();
+        usedBytes = 0;
+        if (packer != null) {
+            dispose(packer);
+            packer = null;
+        }
+    }
+
+    /**
+     * Frees the pages of a packer. The packer only disposes pages without a texture, and disposing a page texture
+     * disposes its pixmap as well.
+     */
+    private static void dispose(PixmapPacker packer) {
+        for (PixmapPacker.Page page : packer.getPages()) {
+            if (page.getTexture() != null) {
+                page.getTexture().dispose();
+            }
+        }
+        packer.dispose();
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+}
@@ -0,0 +1,286 @@
+package com.tikz.grid;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import org.scilab.forge.jlatexmath.ParseException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Textures of rendered LaTeX formulas, shared by every node with the same formula. Shapes retain the formulas
+ * they show. Textures are freed, least recently drawn first, when they take more than the memory budget, and are
+ * rendered again the next time they are drawn. Formulas nothing retains anymore stay in memory within the budget,
+ * so undoing a clear or an import shows them again without rendering them.
+ * <p>
+ * Formulas are rendered on a background thread and only uploaded on the GL thread, so the editor keeps
+ * drawing while they load. Formulas are packed into a {@link LaTeXAtlas}, so labels rarely switch textures, and
+ * only formulas too large for its pages get a texture of their own.
+ */
+public class LaTeXTextureCache implements Disposable {
+    private final ObjectMap<String, Entry> entries = new ObjectMap<>();
+    private long budgetBytes;
+    private long residentBytes = 0;
+    private int frame = 0;
+    private Texture errorTexture;
+    private TextureRegion errorRegion;
+    private final LaTeXAtlas atlas = new LaTeXAtlas();
+    // jlatexmath is not thread safe, so formulas are rendered one at a time
+    private ExecutorService renderer;
+
+    // textures in memory, least recently drawn first
+    private Entry head;
+    private Entry tail;
+
+    private static class Entry {
+        final String text;
+        int references = 0;
+        TextureRegion region;
+        // whether the region is in the atlas, otherwise it is the whole of its own texture
+        boolean packed;
+        boolean loading;
+        long bytes;
+        int lastDrawn;
+        Entry previous;
+        Entry next;
+
+        Entry(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * @param budgetBytes memory the textures may use before the least recently drawn are freed
+     */
+    public LaTeXTextureCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static boolean isFormula(String text) {
+        return text.length() >= 2 && text.charAt(0) == '$' && text.charAt(text.length() - 1) == '$';
+    }
+
+    public void setBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * @return estimated texture memory of the formulas in memory, in bytes. The atlas may use more until it is
+     * repacked, see {@link LaTeXAtlas#getPageBytes()}.
+     */
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Keeps the texture of a formula alive, called when a shape showing it is added
+     */
+    public void retain(String text) {
+        if (!isFormula(text)) return;
+        Entry entry = entries.get(text);
+        if (entry == null) {
+            entry = new Entry(text);
+            entries.put(text, entry);
+        }
+        entry.references++;
+    }
+
+    /**
+     * Releases a formula retained by {@link #retain(String)}. Its texture stays in memory until it is the least
+     * recently drawn while over the budget.
+     */
+    public void release(String text) {
+        if (!isFormula(text)) return;
+        Entry entry = entries.get(text);
+        if (entry == null || entry.references == 0) {
+            throw new IllegalStateException("The formula was not retained: " + text);
+        }
+        if (--entry.references == 0 && entry.region == null && !entry.loading) {
+            entries.remove(text);
+        }
+    }
+
+    /**
+     * Frees every formula, whether it is retained or not
+     */
+    public void releaseAll() {
+        for (Entry entry : entries.values()) {
+            evict(entry);
+        }
+        entries.clear();
+        atlas.clear();
+    }
+
+    /**
+     * Gets the image of a formula to draw this frame, starting to render it if it isn't in memory.
+     * Formulas that aren't retained, such as text that is being typed, are kept like released ones.
+     *
+     * @param text text of the tikz node
+     * @return the rendered formula, or null if the text is not a formula or is still being rendered
+     */
+    public TextureRegion get(String text) {
+        if (!isFormula(text)) {
+            return null;
+        }
+        Entry entry = entries.get(text);
+        if (entry == null) {
+            entry = new Entry(text);
+            entries.put(text, entry);
+        }
+        if (entry.region == null) {
+            if (!entry.loading) {
+                load(entry);
+            }
+            return null;
+        }
+        unlink(entry);
+        entry.lastDrawn = frame;
+        append(entry);
+        if (entry.packed) {
+            atlas.update();
+        }
+        return entry.region;
+    }
+
+    /**
+     * Ends a frame, freeing the least recently drawn textures that were not drawn in it while over the budget
+     */
+    public void endFrame() {
+        Entry entry = head;
+        while (entry != null && entry.lastDrawn != frame && residentBytes > budgetBytes) {
+            Entry next = entry.next;
+            evict(entry);
+            if (entry.references == 0) {
+                entries.remove(entry.text);
+            }
+            entry = next;
+        }
+        atlas.compact();
+        frame++;
+    }
+
+    private void load(Entry entry) {
+        if (renderer == null) {
+            renderer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "LaTeX renderer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        entry.loading = true;
+        renderer.execute(() -> {
+            Pixmap pixmap;
+            try {
+                pixmap = GenerateLaTeXImage.createLaTeXFormulaPixmap(entry.text);
+            } catch (ParseException e) {
+                Gdx.app.error("LaTeXTextureCache", "Parse Error: " + entry.text);
+                pixmap = null;
+            } catch (RuntimeException e) {
+                // the formula shows the parse error instead of its placeholder, rather than loading forever
+                Gdx.app.error("LaTeXTextureCache", "Rendering failed: " + entry.text, e);
+                pixmap = null;
+            }
+            Pixmap rendered = pixmap;
+            Gdx.app.postRunnable(() -> finishLoad(entry, rendered));
+        });
+    }
+
+    /**
+     * Uploads a rendered formula on the GL thread
+     *
+     * @param pixmap rendered formula, or null if it could not be parsed
+     */
+    private void finishLoad(Entry entry, Pixmap pixmap) {
+        // the formula was released or the cache disposed while it was rendered
+        if (entries.get(entry.text) != entry || !entry.loading) {
+            if (pixmap != null) pixmap.dispose();
+            return;
+        }
+        entry.loading = false;
+        if (pixmap != null) {
+            // RGBA8888 with mipmaps
+            entry.bytes = (long) pixmap.getWidth() * pixmap.getHeight() * 4 * 4 / 3;
+            entry.packed = LaTeXAtlas.fits(pixmap);
+            if (entry.packed) {
+                // uploaded with the rest of the page when it is drawn
+                entry.region = atlas.add(pixmap);
+                pixmap.dispose();
+            } else {
+                entry.region = new TextureRegion(GenerateLaTeXImage.createLaTeXTexture(pixmap));
+            }
+        } else {
+            if (errorTexture == null) {
+                errorTexture = new Texture(Gdx.files.internal("Parsing Error.png"));
+                errorRegion = new TextureRegion(errorTexture);
+            }
+            entry.region = errorRegion;
+            entry.packed = false;
+            entry.bytes = 0;
+        }
+        residentBytes += entry.bytes;
+        // show the formula instead of its placeholder even if nothing else draws a frame
+        Gdx.graphics.requestRendering();
+        // kept for this frame, after that it needs to be drawn or retained
+        entry.lastDrawn = frame;
+        append(entry);
+    }
+
+    private void evict(Entry entry) {
+        entry.loading = false;
+        if (entry.region == null) return;
+        unlink(entry);
+        if (entry.packed) {
+            atlas.remove(entry.region);
+        } else if (entry.region != errorRegion) {
+            entry.region.getTexture().dispose();
+        }
+        entry.region = null;
+        residentBytes -= entry.bytes;
+        entry.bytes = 0;
+    }
+
+    private void append(Entry entry) {
+        entry.previous = tail;
+        entry.next = null;
+        if (tail == null) {
+            head = entry;
+        } else {
+            tail.next = entry;
+        }
+        tail = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.previous == null) {
+            head = entry.next;
+        } else {
+            entry.previous.next = entry.next;
+        }
+        if (entry.next == null) {
+            tail = entry.previous;
+        } else {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    @Override
+    public void dispose() {
+        releaseAll();
+        atlas.dispose();
+        if (renderer != null) {
+            renderer.shutdownNow();
+            renderer = null;
+        }
+        if (errorTexture != null) {
+            errorTexture.dispose();
+            errorTexture = null;
+            errorRegion = null;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.tikz.grid;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Keeps the geometry of committed shapes on the GPU, in grid units, so frames that don't change the document only
+ * issue draw calls. Shapes are grouped in chunks with a mesh each, and changing the last shapes only rebuilds the
+ * last chunk. Panning and zooming are applied by the projection. Dashes and arrowheads grow with the zoom, so their
+ * size in grid units doesn't change, but circle segments and curves are flattened for a level of detail. The detail
+ * is the grid spacing rounded to a power of two, and chunks built for another detail are only rebuilt once they are
+ * drawn, so zooming rebuilds the visible chunks every time the grid spacing doubles or halves.
+ * <p>
+ * Each chunk is split at its text shapes into runs of geometry, so labels can be drawn between the runs in
+ * document order.
+ */
+public class ShapeMeshes implements Disposable {
+    public static final int SHAPES_PER_CHUNK = 1024;
+    // x, y and packed color
+    private static final int VERTEX_SIZE = 3;
+
+    private final GridInterface grid;
+    private final Array<Chunk> chunks = new Array<>();
+    private final ShaderProgram shader;
+    private final FloatArray vertices = new FloatArray(false, 4096);
+    private final Tessellation tessellation = new Tessellation();
+    private final float[] bounds = new float[4];
+    private final Matrix4 transform = new Matrix4();
+    private final Color color = new Color();
+    private final TikType shape = new TikType(new Vec2(), new Vec2(), DrawType.LINE);
+
+    private float gridSpacing;
+    private float scaling;
+    // grid units per pixel of line width, dash or arrowhead
+    private float unitsPerPixel;
+    // pixels per grid unit the chunks are tessellated for
+    private float detail;
+    private boolean lightMode;
+
+    /**
+     * Up to {@link #SHAPES_PER_CHUNK} shapes, as runs of geometry and labels in document order
+     */
+    public static class Chunk {
+        boolean dirty = true;
+        float detail;
+        Mesh mesh;
+        /** in document order, a label is the index of its shape and a run is -(run + 1) */
+        public final IntArray items = new IntArray();
+        /** first vertex and vertex count of every run */
+        final IntArray runs = new IntArray();
+        /** grid bounds of every run, minX, minY, maxX, maxY */
+        public final FloatArray runBounds = new FloatArray();
+        /** grid bounds of all the runs */
+        public final float[] bounds = new float[4];
+    }
+
+    /**
+     * @param grid editor whose colors and line widths the meshes use
+     */
+    public ShapeMeshes(GridInterface grid) {
+        this.grid = grid;
+        shader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
+    }
+
+    /**
+     * Marks shapes from an index on as changed, called after shapes are added, removed or replaced
+     *
+     * @param from first changed shape
+     */
+    public void shapesChanged(int from) {
+        int chunk = from / SHAPES_PER_CHUNK;
+        for (int i = chunk; i < chunks.size; i++) {
+            chunks.get(i).dirty = true;
+        }
+    }
+
+    /**
+     * Rebuilds the chunks that changed, or every chunk if the colors or the size of a pixel in grid units changed.
+     * Chunks built for another level of detail are rebuilt by {@link #refine} when they are drawn.
+     *
+     * @param points shapes of the document
+     */
+    public void update(ShapeStore points, float gridSpacing, float scaling, float zoomLevel, boolean lightMode) {
+        if (this.gridSpacing != gridSpacing || this.scaling != scaling) {
+            this.gridSpacing = gridSpacing;
+            this.scaling = scaling;
+            detail = (float) Math.pow(2, Math.round(Math.log(gridSpacing) / Math.log(2)));
+            // resizing keeps the ratio up to rounding
+            float units = scaling * zoomLevel / gridSpacing;
+            if (Math.abs(units - unitsPerPixel) > unitsPerPixel * 1e-4f) {
+                unitsPerPixel = units;
+                shapesChanged(0);
+            }
+        }
+        if (this.lightMode != lightMode) {
+            this.lightMode = lightMode;
+            shapesChanged(0);
+        }
+
+        int chunkCount = (points.size() + SHAPES_PER_CHUNK - 1) / SHAPES_PER_CHUNK;
+        while (chunks.size > chunkCount) {
+            Chunk chunk = chunks.pop();
+            if (chunk.mesh != null) chunk.mesh.dispose();
+        }
+        while (chunks.size < chunkCount) {
+            chunks.add(new Chunk());
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            Chunk chunk = chunks.get(i);
+            if (chunk.dirty) {
+                build(chunk, points, i * SHAPES_PER_CHUNK,
+                    Math.min(SHAPES_PER_CHUNK, points.size() - i * SHAPES_PER_CHUNK));
+            }
+        }
+    }
+
+    public Array<Chunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Rebuilds a chunk for the current level of detail if it was built for another one
+     *
+     * @param points shapes of the document
+     * @param chunk  index of the chunk
+     */
+    public void refine(ShapeStore points, int chunk) {
+        Chunk c = chunks.get(chunk);
+        if (c.detail != detail) {
+            int first = chunk * SHAPES_PER_CHUNK;
+            build(c, points, first, Math.min(SHAPES_PER_CHUNK, points.size() - first));
+        }
+    }
+
+    /**
+     * Binds the shader to draw runs, again after anything else was drawn
+     *
+     * @param projection screen projection
+     * @param centerX    screen location of the grid origin
+     * @param centerY    screen location of the grid origin
+     */
+    public void begin(Matrix4 projection, float centerX, float centerY) {
+        transform.set(projection).translate(centerX, centerY, 0).scale(gridSpacing, gridSpacing, 1);
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", transform);
+    }
+
+    /**
+     * Draws a run of geometry between {@link #begin} and the next use of another shader
+     */
+    public void drawRun(Chunk chunk, int run) {
+        int count = chunk.runs.get(run * 2 + 1);
+        if (count > 0) {
+            chunk.mesh.render(shader, GL20.GL_TRIANGLES, chunk.runs.get(run * 2), count);
+        }
+    }
+
+    private void build(Chunk chunk, ShapeStore points, int first, int count) {
+        chunk.items.clear();
+        chunk.runs.clear();
+        chunk.runBounds.clear();
+        resetBounds(chunk.bounds, 0);
+        vertices.clear();
+
+        boolean inRun = false;
+        for (int i = first; i < first + count; i++) {
+            if (points.getType(i) == DrawType.TEXT) {
+                if (inRun) {
+                    endRun(chunk);
+                    inRun = false;
+                }
+                chunk.items.add(i);
+                continue;
+            }
+            if (!inRun) {
+                chunk.items.add(-(chunk.runs.size / 2 + 1));
+                chunk.runs.add(vertices.size / VERTEX_SIZE, 0);
+                chunk.runBounds.setSize(chunk.runBounds.size + 4);
+                resetBounds(chunk.runBounds.items, chunk.runBounds.size - 4);
+                inRun = true;
+            }
+            TikType tik = points.get(i, shape);
+            addShape(tik, grid.shapeColor(tik, color), grid.getLineWidth(tik.lineThickness));
+            tik.getBounds(bounds);
+            // arrowheads reach past the points of the shape
+            float margin = 20f * unitsPerPixel;
+            expand(chunk.runBounds.items, chunk.runBounds.size - 4, margin);
+            expand(chunk.bounds, 0, margin);
+        }
+        if (inRun) {
+            endRun(chunk);
+        }
+
+        int vertexCount = vertices.size / VERTEX_SIZE;
+        if (chunk.mesh == null || chunk.mesh.getMaxVertices() < vertexCount) {
+            // room to grow, so adding shapes one at a time doesn't recreate the mesh every time
+            int capacity = Math.max(vertexCount, chunk.mesh == null ? 3 : chunk.mesh.getMaxVertices() * 3 / 2);
+            if (chunk.mesh != null) chunk.mesh.dispose();
+            chunk.mesh = new Mesh(true, capacity, 0,
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                VertexAttribute.ColorPacked());
+        }
+        chunk.mesh.setVertices(vertices.items, 0, vertices.size);
+        chunk.dirty = false;
+        chunk.detail = detail;
+    }
+
+    private void endRun(Chunk chunk) {
+        int run = chunk.runs.size - 2;
+        chunk.runs.set(run + 1, vertices.size / VERTEX_SIZE - chunk.runs.get(run));
+    }
+
+    private void addShape(TikType tik, Color shapeColor, float lineWidth) {
+        float packed = shapeColor.toFloatBits();
+        // the zoom that gives the same pixel sizes at the detail as at the grid spacing
+        tessellation.set(tik, tik.frontArrow, detail, scaling, unitsPerPixel * detail / scaling);
+        float[] t = tessellation.triangles;
+        for (int i = 0, n = tessellation.triangleCount * 6; i < n; i += 6) {
+            vertices.add(t[i], t[i + 1], packed);
+            vertices.add(t[i + 2], t[i + 3], packed);
+            vertices.add(t[i + 4], t[i + 5], packed);
+        }
+        // lines as quads like ShapeRenderer.rectLine, with the width in grid units
+        float halfWidth = Math.max(lineWidth * unitsPerPixel, 1f / detail) / 2;
+        float[] l = tessellation.lines;
+        for (int i = 0, n = tessellation.lineCount * 4; i < n; i += 4) {
+            float x1 = l[i];
+            float y1 = l[i + 1];
+            float x2 = l[i + 2];
+            float y2 = l[i + 3];
+            float length = (float) Math.hypot(x2 - x1, y2 - y1);
+            if (length == 0) continue;
+            float nx = -(y2 - y1) / length * halfWidth;
+            float ny = (x2 - x1) / length * halfWidth;
+            vertices.add(x1 + nx, y1 + ny, packed);
+            vertices.add(x1 - nx, y1 - ny, packed);
+            vertices.add(x2 - nx, y2 - ny, packed);
+            vertices.add(x2 - nx, y2 - ny, packed);
+            vertices.add(x2 + nx, y2 + ny, packed);
+            vertices.add(x1 + nx, y1 + ny, packed);
+        }
+    }
+
+    private static void resetBounds(float[] b, int offset) {
+        b[offset] = Float.POSITIVE_INFINITY;
+        b[offset + 1] = Float.POSITIVE_INFINITY;
+        b[offset + 2] = Float.NEGATIVE_INFINITY;
+        b[offset + 3] = Float.NEGATIVE_INFINITY;
+    }
+
+    private void expand(float[] b, int offset, float margin) {
+        b[offset] = Math.min(b[offset], bounds[0] - margin);
+        b[offset + 1] = Math.min(b[offset + 1], bounds[1] - margin);
+        b[offset + 2] = Math.max(b[offset + 2], bounds[2] + margin);
+        b[offset + 3] = Math.max(b[offset + 3], bounds[3] + margin);
+    }
+
+    @Override
+    public void dispose() {
+        for (Chunk chunk : chunks) {
+            if (chunk.mesh != null) chunk.mesh.dispose();
+        }
+        chunks.clear();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,88 @@
+package com.tikz.grid;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class LaTeXAtlasTest {
+    // larger than half a page, so every formula gets a page of its own
+    private static final int FORMULA_SIZE = LaTeXAtlas.PAGE_SIZE * 3 / 4;
+    private static HeadlessApplication app;
+
+    @BeforeAll
+    static void startApplication() {
+        app = new HeadlessApplication(new ApplicationAdapter() {
+        });
+        // textures only need a GL that accepts every call, and handles that aren't 0 so they can be disposed
+        AtomicInteger handles = new AtomicInteger();
+        GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("glGenTexture")) return handles.incrementAndGet();
+                Class<?> type = method.getReturnType();
+                if (type == boolean.class) return false;
+                if (type == int.class) return 0;
+                if (type == float.class) return 0f;
+                return null;
+            });
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        app.exit();
+    }
+
+    @Test
+    void compactingDisposesTheOldPageTextures() {
+        LaTeXAtlas atlas = new LaTeXAtlas();
+        TextureRegion kept = add(atlas);
+        add(atlas);
+        TextureRegion removed = add(atlas);
+        atlas.update();
+        assertEquals(3, Texture.getNumManagedTextures());
+
+        Texture oldPage = kept.getTexture();
+        atlas.remove(removed);
+        atlas.compact();
+        assertEquals(2, Texture.getNumManagedTextures());
+        assertNotSame(oldPage, kept.getTexture());
+
+        atlas.dispose();
+        assertEquals(0, Texture.getNumManagedTextures());
+    }
+
+    @Test
+    void removingTheLastFormulaDisposesThePages() {
+        LaTeXAtlas atlas = new LaTeXAtlas();
+        TextureRegion first = add(atlas);
+        TextureRegion second = add(atlas);
+        atlas.update();
+        assertEquals(2, Texture.getNumManagedTextures());
+
+        atlas.remove(first);
+        atlas.remove(second);
+        assertEquals(0, Texture.getNumManagedTextures());
+        assertEquals(0, atlas.getPageBytes());
+    }
+
+    private static TextureRegion add(LaTeXAtlas atlas) {
+        Pixmap pixmap = new Pixmap(FORMULA_SIZE, FORMULA_SIZE, Pixmap.Format.RGBA8888);
+        TextureRegion region = atlas.add(pixmap);
+        pixmap.dispose();
+        return region;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tikz;
+
+public class ColorHolder implements Cloneable{
+    public static final ColorHolder[] DEFAULT_COLORS = {
+        new ColorHolder(0x000000ff, "Black"  , 1.0f),
+        new ColorHolder(0x808080ff, "Gray"   , 1.0f),
+        new ColorHolder(0xff0101ff, "Red"    , 1.0f),
+        new ColorHolder(0x01ff01ff, "Green"  , 1.0f),
+        new ColorHolder(0x0101ffff, "Blue"   , 1.0f),
+        new ColorHolder(0xff8001ff, "Orange" , 1.0f),
+        new ColorHolder(0xffeb3dff, "Yellow" , 1.0f),
+        new ColorHolder(0x01b9f2ff, "Cyan"   , 1.0f),
+        new ColorHolder(0xfb3199ff, "Magenta", 1.0f),
+    };
+
+    public String name;
+    public float percentValue;
+    public float r, g, b;
+
+    /**
+     * @param rgba8888 color packed as 0xRRGGBBAA, the alpha is ignored
+     * @param name TikZ name of the color
+     * @param percentValue color weight between 0 and 1
+     */
+    public ColorHolder(int rgba8888, String name, float percentValue) {
+        this(((rgba8888 & 0xff000000) >>> 24) / 255f, ((rgba8888 & 0x00ff0000) >>> 16) / 255f,
+            ((rgba8888 & 0x0000ff00) >>> 8) / 255f, name, percentValue);
+    }
+
+    public ColorHolder(float r, float g, float b, String name, float percentValue) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+        this.name = name;
+        this.percentValue = percentValue;
+    }
+
+    @Override
+    public String toString() {
+        return name.toLowerCase();
+    }
+
+    @Override
+    public ColorHolder clone() {
+        try {
+            return (ColorHolder) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tikz.grid;
+
+import java.util.Arrays;
+
+/**
+ * Turns Bezier curves of any degree into polylines. The curve is split in half with de Casteljau's algorithm
+ * until every piece is within a tolerance of a straight line, so gentle curves get few points and sharp bends
+ * get many. The buffers are reused, so flattening does not allocate once they have grown.
+ */
+public class BezierFlattener {
+    // Limits a curve to 2^16 segments, far more than any tolerance needs
+    private static final int MAX_DEPTH = 16;
+
+    private float[] points = new float[64];
+    private int pointCount = 0;
+
+    // pieces waiting to be flattened, each is (degree + 1) control points
+    private float[] stack = new float[0];
+    private int[] depths = new int[MAX_DEPTH + 2];
+
+    /**
+     * Flattens the curve of a bezier shape
+     *
+     * @param tik       bezier shape, its vertices are the control points between the origin and end point
+     * @param tolerance largest distance between the curve and the polyline, in grid units
+     * @return number of points, which are at the start of {@link #points()} as (x, y) pairs
+     */
+    public int flatten(TikType tik, float tolerance) {
+        int size = (tik.vertices.size() + 2) * 2;
+        if (stack.length < size * (MAX_DEPTH + 2)) {
+            stack = new float[size * (MAX_DEPTH + 2)];
+        }
+        stack[0] = tik.origin.x;
+        stack[1] = tik.origin.y;
+        for (int i = 0; i < tik.vertices.size(); i++) {
+            stack[i * 2 + 2] = tik.vertices.get(i).x;
+            stack[i * 2 + 3] = tik.vertices.get(i).y;
+        }
+        stack[size - 2] = tik.endPoint.x;
+        stack[size - 1] = tik.endPoint.y;
+        return flatten(size, tolerance);
+    }
+
+    /**
+     * Flattens a curve given by its control points
+     *
+     * @param controlPoints (x, y) pairs, the first and last are the ends of the curve
+     * @param tolerance     largest distance between the curve and the polyline
+     * @return number of points, which are at the start of {@link #points()} as (x, y) pairs
+     */
+    public int flatten(float[] controlPoints, float tolerance) {
+        int size = controlPoints.length;
+        if (size < 4 || size % 2 != 0) {
+            throw new IllegalArgumentException("A curve needs at least two (x, y) control points");
+        }
+        if (stack.length < size * (MAX_DEPTH + 2)) {
+            stack = new float[size * (MAX_DEPTH + 2)];
+        }
+        System.arraycopy(controlPoints, 0, stack, 0, size);
+        return flatten(size, tolerance);
+    }
+
+    /**
+     * @return points found by the last flatten
+     */
+    public float[] points() {
+        return points;
+    }
+
+    private int flatten(int size, float tolerance) {
+        float toleranceSquared = tolerance * tolerance;
+        pointCount = 0;
+        addPoint(stack[0], stack[1]);
+
+        // depth first, so the left half of every split is finished before the right half
+        int top = 0;
+        depths[0] = 0;
+        while (top >= 0) {
+            int base = top * size;
+            int depth = depths[top];
+            if (depth >= MAX_DEPTH || isFlat(base, size, toleranceSquared)) {
+                addPoint(stack[base + size - 2], stack[base + size - 1]);
+                top--;
+                continue;
+            }
+            // the right half replaces the piece and the left half goes on top of it
+            split(stack, base, base + size, size);
+            depths[top] = depth + 1;
+            depths[++top] = depth + 1;
+        }
+        return pointCount;
+    }
+
+    /**
+     * Tests whether the piece is within the tolerance of its chord using two upper bounds of the distance.
+     * The curve lies inside its control points, so it is no further from the chord than they are. It also
+     * differs from the evenly parameterized chord by at most n(n-1)/8 times the largest second difference
+     * of the control points, which is tighter for low degrees.
+     */
+    private boolean isFlat(int base, int size, float toleranceSquared) {
+        float ax = stack[base];
+        float ay = stack[base + 1];
+        float dx = stack[base + size - 2] - ax;
+        float dy = stack[base + size - 1] - ay;
+        float lengthSquared = dx * dx + dy * dy;
+        boolean hullFlat = true;
+        float maxDifference = 0;
+        for (int i = base + 2; i < base + size - 2; i += 2) {
+            float px = stack[i] - ax;
+            float py = stack[i + 1] - ay;
+            // distance to the chord as a segment, so points beyond its ends are not mistaken as flat
+            float t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / lengthSquared));
+            float ex = px - t * dx;
+            float ey = py - t * dy;
+            if (ex * ex + ey * ey > toleranceSquared) {
+                hullFlat = false;
+            }
+            float sx = stack[i - 2] - 2 * stack[i] + stack[i + 2];
+            float sy = stack[i - 1] - 2 * stack[i + 1] + stack[i + 3];
+            maxDifference = Math.max(maxDifference, sx * sx + sy * sy);
+        }
+        if (hullFlat) {
+            return true;
+        }
+        float degree = size / 2f - 1;
+        float scale = degree * (degree - 1) / 8;
+        return maxDifference * scale * scale <= toleranceSquared;
+    }
+
+    /**
+     * Splits the curve at from in half with de Casteljau's algorithm. The right half is written over the
+     * curve and the left half to left.
+     *
+     * @param size number of floats in the curve, two per control point
+     */
+    static void split(float[] stack, int from, int left, int size) {
+        int last = size - 2;
+        // every pass of the triangle shortens the row by one point, the first point of each row belongs
+        // to the left half and the last point to the right half
+        for (int level = 0; level < size / 2; level++) {
+            stack[left + level * 2] = stack[from];
+            stack[left + level * 2 + 1] = stack[from + 1];
+            for (int i = 0; i < last - level * 2; i += 2) {
+                stack[from + i] = (stack[from + i] + stack[from + i + 2]) * 0.5f;
+                stack[from + i + 1] = (stack[from + i + 1] + stack[from + i + 3]) * 0.5f;
+            }
+        }
+    }
+
+    private void addPoint(float x, float y) {
+        if (points.length < (pointCount + 1) * 2) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[pointCount * 2] = x;
+        points[pointCount * 2 + 1] = y;
+        pointCount++;
+    }
+}
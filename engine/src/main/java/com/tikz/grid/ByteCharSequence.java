@@ -0,0 +1,79 @@
+package com.tikz.grid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read only view of UTF-8 bytes as characters, used to parse files without decoding them into a String.
+ * Every byte is one char, which is exact for the ASCII syntax of TikZ. Multi-byte characters only show up
+ * inside node text, and {@link #toString()} decodes those properly.
+ * <p>
+ * Reads use absolute indexes, so several threads may parse the same sequence at once.
+ */
+public final class ByteCharSequence implements CharSequence {
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    public ByteCharSequence(ByteBuffer bytes) {
+        this(bytes, bytes.position(), bytes.remaining());
+    }
+
+    private ByteCharSequence(ByteBuffer bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Memory maps a file. The mapping stays valid after this returns and is released once the sequence
+     * is garbage collected.
+     *
+     * @param file file to map
+     * @return the contents of the file
+     * @throws IOException the file could not be read or is larger than 2 GB
+     */
+    public static ByteCharSequence map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to import: " + file);
+            }
+            return new ByteCharSequence(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new ByteCharSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] copy = new byte[length];
+        for (int i = 0; i < length; i++) {
+            copy[i] = bytes.get(offset + i);
+        }
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package com.tikz.grid;
+
+import java.util.Arrays;
+
+/**
+ * Converts Bezier curves of any degree into the cubic pieces TikZ can draw with {@code .. controls ..}.
+ * Lines, quadratics and cubics are converted exactly. Higher degrees are split in half until a cubic with the
+ * same ends and end tangents stays within a tolerance of each piece, so neighbouring pieces join smoothly.
+ */
+public class CubicSplitter {
+    // Limits a curve to 2^10 pieces
+    private static final int MAX_DEPTH = 10;
+    // parameters at which a piece and its cubic are compared
+    private static final float[] SAMPLES = {1 / 6f, 2 / 6f, 3 / 6f, 4 / 6f, 5 / 6f};
+
+    private float[] pieces = new float[24];
+    private int pieceCount = 0;
+
+    private float[] stack = new float[0];
+    private int[] depths = new int[MAX_DEPTH + 2];
+    private float[] scratch = new float[0];
+
+    /**
+     * Splits the curve of a bezier shape into cubic pieces. The first piece starts at the origin of the shape.
+     *
+     * @param tik       bezier shape
+     * @param tolerance largest distance between the curve and its pieces, in grid units
+     * @return number of pieces, which are at the start of {@link #pieces()}
+     */
+    public int split(TikType tik, float tolerance) {
+        int size = (tik.vertices.size() + 2) * 2;
+        if (stack.length < size * (MAX_DEPTH + 2)) {
+            stack = new float[size * (MAX_DEPTH + 2)];
+            scratch = new float[size];
+        }
+        stack[0] = tik.origin.x;
+        stack[1] = tik.origin.y;
+        for (int i = 0; i < tik.vertices.size(); i++) {
+            stack[i * 2 + 2] = tik.vertices.get(i).x;
+            stack[i * 2 + 3] = tik.vertices.get(i).y;
+        }
+        stack[size - 2] = tik.endPoint.x;
+        stack[size - 1] = tik.endPoint.y;
+
+        pieceCount = 0;
+        float toleranceSquared = tolerance * tolerance;
+        int top = 0;
+        depths[0] = 0;
+        while (top >= 0) {
+            int base = top * size;
+            int depth = depths[top];
+            if (size <= 8 || depth >= MAX_DEPTH || fits(base, size, toleranceSquared)) {
+                addPiece(base, size);
+                top--;
+                continue;
+            }
+            BezierFlattener.split(stack, base, base + size, size);
+            depths[top] = depth + 1;
+            depths[++top] = depth + 1;
+        }
+        return pieceCount;
+    }
+
+    /**
+     * @return the pieces found by the last split, each as the x, y of its first control point, second control
+     * point and end point
+     */
+    public float[] pieces() {
+        return pieces;
+    }
+
+    private boolean fits(int base, int size, float toleranceSquared) {
+        float degree = size / 2f - 1;
+        float ax = stack[base];
+        float ay = stack[base + 1];
+        float bx = stack[base + size - 2];
+        float by = stack[base + size - 1];
+        float c1x = ax + degree / 3 * (stack[base + 2] - ax);
+        float c1y = ay + degree / 3 * (stack[base + 3] - ay);
+        float c2x = bx + degree / 3 * (stack[base + size - 4] - bx);
+        float c2y = by + degree / 3 * (stack[base + size - 3] - by);
+
+        for (float t : SAMPLES) {
+            float s = 1 - t;
+            float cubicX = s * s * s * ax + 3 * s * s * t * c1x + 3 * s * t * t * c2x + t * t * t * bx;
+            float cubicY = s * s * s * ay + 3 * s * s * t * c1y + 3 * s * t * t * c2y + t * t * t * by;
+            System.arraycopy(stack, base, scratch, 0, size);
+            for (int row = size - 2; row > 0; row -= 2) {
+                for (int i = 0; i < row; i += 2) {
+                    scratch[i] = scratch[i] * s + scratch[i + 2] * t;
+                    scratch[i + 1] = scratch[i + 1] * s + scratch[i + 3] * t;
+                }
+            }
+            float dx = scratch[0] - cubicX;
+            float dy = scratch[1] - cubicY;
+            if (dx * dx + dy * dy > toleranceSquared) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the cubic for a piece. It is exact up to degree three, higher degrees keep the end tangents.
+     */
+    private void addPiece(int base, int size) {
+        if (pieces.length < (pieceCount + 1) * 6) {
+            pieces = Arrays.copyOf(pieces, pieces.length * 2);
+        }
+        float ax = stack[base];
+        float ay = stack[base + 1];
+        float bx = stack[base + size - 2];
+        float by = stack[base + size - 1];
+        // degree elevation below degree three, the control points themselves for cubics
+        float degree = size / 2f - 1;
+        int p = pieceCount * 6;
+        pieces[p] = ax + degree / 3 * (stack[base + 2] - ax);
+        pieces[p + 1] = ay + degree / 3 * (stack[base + 3] - ay);
+        pieces[p + 2] = bx + degree / 3 * (stack[base + size - 4] - bx);
+        pieces[p + 3] = by + degree / 3 * (stack[base + size - 3] - by);
+        pieces[p + 4] = bx;
+        pieces[p + 5] = by;
+        pieceCount++;
+    }
+}
@@ -0,0 +1,109 @@
+package com.tikz.grid;
+
+/**
+ * Converts coverage images, such as rendered glyphs, into signed distance fields. Each pixel stores its distance
+ * to the outline, so the shape can be scaled and thresholded at 0.5 with sharp edges at any size.
+ * Distances use the exact Euclidean transform of Felzenszwalb and Huttenlocher, which is linear in the pixels.
+ */
+public class DistanceField {
+    private static final float FAR = 1e20f;
+
+    private DistanceField() {
+    }
+
+    /**
+     * Computes the distance field of an image
+     *
+     * @param coverage  coverage of every pixel from 0 to 255, row by row, pixels of at least half are inside
+     * @param width     width of the image
+     * @param height    height of the image
+     * @param spread    distance in pixels that maps to 0 outside and 255 inside, the outline is at 128
+     * @return distance field with the same layout as the coverage
+     */
+    public static byte[] generate(byte[] coverage, int width, int height, float spread) {
+        int size = width * height;
+        if (coverage.length < size) {
+            throw new IllegalArgumentException("The coverage has fewer than width * height pixels");
+        }
+        float[] toInside = new float[size];
+        float[] toOutside = new float[size];
+        for (int i = 0; i < size; i++) {
+            boolean inside = (coverage[i] & 0xFF) >= 128;
+            toInside[i] = inside ? 0 : FAR;
+            toOutside[i] = inside ? FAR : 0;
+        }
+        transform(toInside, width, height);
+        transform(toOutside, width, height);
+
+        byte[] field = new byte[size];
+        for (int i = 0; i < size; i++) {
+            // the outline lies between the last pixel inside and the first outside
+            float distance = toOutside[i] > 0
+                ? (float) Math.sqrt(toOutside[i]) - 0.5f
+                : 0.5f - (float) Math.sqrt(toInside[i]);
+            float value = 0.5f + distance / (2 * spread);
+            field[i] = (byte) Math.round(Math.max(0, Math.min(1, value)) * 255);
+        }
+        return field;
+    }
+
+    /**
+     * Replaces every value by the squared distance to the nearest zero, first along the columns then the rows
+     */
+    private static void transform(float[] grid, int width, int height) {
+        int length = Math.max(width, height);
+        float[] f = new float[length];
+        float[] d = new float[length];
+        int[] v = new int[length];
+        float[] z = new float[length + 1];
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                f[y] = grid[y * width + x];
+            }
+            transform(f, d, v, z, height);
+            for (int y = 0; y < height; y++) {
+                grid[y * width + x] = d[y];
+            }
+        }
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(grid, y * width, f, 0, width);
+            transform(f, d, v, z, width);
+            System.arraycopy(d, 0, grid, y * width, width);
+        }
+    }
+
+    /**
+     * One dimensional transform, the lower envelope of the parabolas rooted at every sample
+     */
+    private static void transform(float[] f, float[] d, int[] v, float[] z, int n) {
+        int k = 0;
+        v[0] = 0;
+        z[0] = Float.NEGATIVE_INFINITY;
+        z[1] = Float.POSITIVE_INFINITY;
+        for (int q = 1; q < n; q++) {
+            // drop the parabolas the new one hides, the first is never hidden since z[0] is -infinity
+            float s = intersection(f, q, v[k]);
+            while (s <= z[k]) {
+                k--;
+                s = intersection(f, q, v[k]);
+            }
+            k++;
+            v[k] = q;
+            z[k] = s;
+            z[k + 1] = Float.POSITIVE_INFINITY;
+        }
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (z[k + 1] < q) {
+                k++;
+            }
+            int r = v[k];
+            d[q] = (q - r) * (q - r) + f[r];
+        }
+    }
+
+    private static float intersection(float[] f, int q, int r) {
+        return ((f[q] + q * q) - (f[r] + r * r)) / (2f * (q - r));
+    }
+}
@@ -0,0 +1,78 @@
+package com.tikz.grid;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Keeps the Tikz code of a document between exports, so exporting again only writes the shapes that changed.
+ * The fragments of all shapes are kept back to back in one buffer with the offset where each one ends, so the
+ * document is the buffer itself and a changed shape only rewrites the fragments from it on. Shapes are only
+ * added, undone and replaced at the end of a document, which makes that a few fragments after most edits.
+ */
+public class ExportCache {
+    // characters copied to the output at a time
+    private static final int WRITE_CHUNK = 8192;
+
+    private final StringBuilder text = new StringBuilder();
+    private final TikzWriter writer = new TikzWriter(text);
+    private final TikType shape = new TikType(new Vec2(), new Vec2(), DrawType.LINE);
+    // end of the fragment of every shape in the text
+    private int[] ends = new int[64];
+    // number of shapes whose fragments are up to date
+    private int valid = 0;
+
+    /**
+     * Marks the fragments from a shape on as changed, called after shapes are added, removed or replaced
+     *
+     * @param from first changed shape
+     */
+    public void shapesChanged(int from) {
+        valid = Math.min(valid, from);
+    }
+
+    /**
+     * Writes the fragments of the changed shapes
+     *
+     * @param shapes document the cache was last updated with, with the changes reported since
+     * @return Tikz code of the whole document, valid until the next update
+     */
+    public CharSequence update(ShapeStore shapes) {
+        int keep = Math.min(valid, shapes.size());
+        text.setLength(keep == 0 ? 0 : ends[keep - 1]);
+        if (ends.length < shapes.size()) {
+            int[] grown = new int[Math.max(shapes.size(), ends.length + (ends.length >> 1))];
+            System.arraycopy(ends, 0, grown, 0, keep);
+            ends = grown;
+        }
+        try {
+            for (int i = keep; i < shapes.size(); i++) {
+                writer.write(shapes.get(i, shape));
+                ends[i] = text.length();
+            }
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        valid = shapes.size();
+        return text;
+    }
+
+    /**
+     * @return Tikz code of the whole document
+     */
+    public String convert(ShapeStore shapes) {
+        return update(shapes).toString();
+    }
+
+    /**
+     * Streams the Tikz code of the whole document to the output without copying it into a String
+     *
+     * @throws IOException the output could not be written to
+     */
+    public void write(ShapeStore shapes, Appendable output) throws IOException {
+        CharSequence code = update(shapes);
+        for (int start = 0; start < code.length(); start += WRITE_CHUNK) {
+            output.append(code, start, Math.min(code.length(), start + WRITE_CHUNK));
+        }
+    }
+}
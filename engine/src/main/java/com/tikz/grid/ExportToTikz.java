@@ -0,0 +1,66 @@
+package com.tikz.grid;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public abstract class ExportToTikz {
+    public static String convert(Iterable<TikType> tikzShapes) {
+        StringBuilder output = new StringBuilder();
+        try {
+            write(tikzShapes, output);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    public static String convert(ShapeStore tikzShapes) {
+        StringBuilder output = new StringBuilder();
+        try {
+            write(tikzShapes, output);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Streams the Tikz code for every shape to the output without building the whole document in memory.
+     *
+     * @param tikzShapes shapes to convert
+     * @param output     where the Tikz code is written, e.g. a {@link java.io.Writer}
+     * @throws IOException     the output could not be written to
+     * @throws IllegalDrawType Unknown Draw Code
+     */
+    public static void write(Iterable<TikType> tikzShapes, Appendable output) throws IOException, IllegalDrawType {
+        new TikzWriter(output).writeAll(tikzShapes);
+    }
+
+    /**
+     * Same as {@link #write(Iterable, Appendable)} for the shapes of a store
+     */
+    public static void write(ShapeStore tikzShapes, Appendable output) throws IOException, IllegalDrawType {
+        new TikzWriter(output).writeAll(tikzShapes);
+    }
+
+    /**
+     * Flattens a bezier shape into a polyline within {@link TikzWriter#BEZIER_TOLERANCE} of the curve
+     *
+     * @param tik bezier shape
+     * @return points along the curve, including both ends
+     */
+    public static List<Vec2> getBezierPoints(TikType tik) {
+        BezierFlattener flattener = new BezierFlattener();
+        int count = flattener.flatten(tik, TikzWriter.BEZIER_TOLERANCE);
+        float[] flat = flattener.points();
+        List<Vec2> outputPoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            outputPoints.add(new Vec2(flat[i * 2], flat[i * 2 + 1]));
+        }
+        return outputPoints;
+    }
+}
@@ -0,0 +1,207 @@
+package com.tikz.grid;
+
+/**
+ * Undo and redo journal of the edits to a document, kept as deltas instead of snapshots. Adding a shape costs a
+ * journal entry, the shape itself is only kept while it is undone. Replacing the document, by clearing it or
+ * importing another one, moves the old shapes into the journal without copying them.
+ * <p>
+ * Entries are kept in a ring buffer. Once there are more entries than the capacity or the replaced documents
+ * take more memory than the budget, the oldest entries are forgotten. Undoing and redoing an entry takes constant
+ * time in the journal, apart from copying the vertices of one shape. Whatever the caller derives from the whole
+ * document, like a spatial index, still has to be rebuilt after a replaced document is swapped back.
+ */
+public class History {
+    /** Edits the journal records */
+    public enum Command {
+        /** A shape was added at the end of the document */
+        ADD,
+        /** The document was replaced, e.g. cleared or imported */
+        REPLACE
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+    // estimated bytes of an entry without a document
+    private static final long ENTRY_BYTES = 16;
+
+    private final int capacity;
+    private final long budget;
+    private final byte[] commands;
+    // documents replaced by REPLACE entries, or the documents they replaced while they are undone
+    private final ShapeStore[] documents;
+    // index of the oldest entry, number of entries and how many of them can be undone
+    private int head = 0;
+    private int count = 0;
+    private int undoable = 0;
+    private long bytes = 0;
+    // shapes of undone ADD entries, the last one is redone first
+    private final ShapeStore undone = new ShapeStore();
+    private final TikType shape = new TikType(new Vec2(), new Vec2(), DrawType.LINE);
+
+    /**
+     * @param capacity most entries kept
+     * @param budget   bytes of replaced documents kept before the oldest entries are forgotten
+     */
+    public History(int capacity, long budget) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.budget = budget;
+        commands = new byte[capacity];
+        documents = new ShapeStore[capacity];
+    }
+
+    /**
+     * Records that a shape was added at the end of the document. Forgets the entries that could be redone.
+     */
+    public void recordAdd() {
+        push(Command.ADD, null);
+    }
+
+    /**
+     * Replaces the shapes of a document and records the old ones. Forgets the entries that could be redone.
+     *
+     * @param document    document to change
+     * @param replacement new shapes of the document, the store is taken by the journal and must not be used again
+     */
+    public void replace(ShapeStore document, ShapeStore replacement) {
+        document.swap(replacement);
+        push(Command.REPLACE, replacement);
+    }
+
+    public boolean canUndo() {
+        return undoable > 0;
+    }
+
+    public boolean canRedo() {
+        return undoable < count;
+    }
+
+    /**
+     * @return the edit {@link #undo} reverts, or null if there is none
+     */
+    public Command peekUndo() {
+        return canUndo() ? COMMANDS[commands[slot(undoable - 1)]] : null;
+    }
+
+    /**
+     * @return the edit {@link #redo} applies again, or null if there is none
+     */
+    public Command peekRedo() {
+        return canRedo() ? COMMANDS[commands[slot(undoable)]] : null;
+    }
+
+    /**
+     * Reverts the last edit that isn't undone
+     *
+     * @param document document the edit was made to
+     * @return the reverted edit
+     */
+    public Command undo(ShapeStore document) {
+        if (!canUndo()) {
+            throw new IllegalStateException("There is nothing to undo");
+        }
+        int slot = slot(undoable - 1);
+        Command command = COMMANDS[commands[slot]];
+        if (command == Command.ADD) {
+            moveLast(document, undone);
+        } else {
+            swapDocument(document, slot);
+        }
+        undoable--;
+        return command;
+    }
+
+    /**
+     * Applies the first undone edit again
+     *
+     * @param document document the edit was undone in
+     * @return the applied edit
+     */
+    public Command redo(ShapeStore document) {
+        if (!canRedo()) {
+            throw new IllegalStateException("There is nothing to redo");
+        }
+        int slot = slot(undoable);
+        Command command = COMMANDS[commands[slot]];
+        if (command == Command.ADD) {
+            moveLast(undone, document);
+        } else {
+            swapDocument(document, slot);
+        }
+        undoable++;
+        return command;
+    }
+
+    /**
+     * @return estimated bytes of the entries and the documents they keep
+     */
+    public long getBytes() {
+        return bytes + undone.getMemoryBytes();
+    }
+
+    /**
+     * Forgets every entry
+     */
+    public void clear() {
+        while (count > 0) {
+            dropNewest();
+        }
+        undoable = 0;
+        undone.clear();
+    }
+
+    private void push(Command command, ShapeStore document) {
+        // a new edit branches off, so the undone edits can't be redone anymore
+        while (count > undoable) {
+            dropNewest();
+        }
+        undone.clear();
+        if (count == capacity) {
+            dropOldest();
+        }
+        int slot = slot(count);
+        commands[slot] = (byte) command.ordinal();
+        documents[slot] = document;
+        bytes += cost(slot);
+        count++;
+        undoable++;
+        while (bytes > budget && undoable > 0) {
+            dropOldest();
+        }
+    }
+
+    private void swapDocument(ShapeStore document, int slot) {
+        bytes -= cost(slot);
+        document.swap(documents[slot]);
+        bytes += cost(slot);
+    }
+
+    private void moveLast(ShapeStore from, ShapeStore to) {
+        to.add(from.get(from.size() - 1, shape));
+        from.removeLast();
+    }
+
+    private long cost(int slot) {
+        return ENTRY_BYTES + (documents[slot] == null ? 0 : documents[slot].getMemoryBytes());
+    }
+
+    private void dropOldest() {
+        bytes -= cost(head);
+        documents[head] = null;
+        head = (head + 1) % capacity;
+        count--;
+        undoable--;
+    }
+
+    private void dropNewest() {
+        int slot = slot(count - 1);
+        bytes -= cost(slot);
+        documents[slot] = null;
+        count--;
+    }
+
+    private int slot(int entry) {
+        return (head + entry) % capacity;
+    }
+}
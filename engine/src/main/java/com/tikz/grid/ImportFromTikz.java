@@ -0,0 +1,237 @@
+package com.tikz.grid;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class ImportFromTikz {
+    /** Characters of Tikz code parsed by each task of the parallel import */
+    static final int PARALLEL_CHUNK_SIZE = 1 << 18;
+
+    /**
+     * Converts Tikz code generated by this program to a format the code can understand and draw. The shapes are
+     * parsed on the calling thread and kept as objects, documents are imported with
+     * {@link #FromTikToStore(CharSequence, float, float)}, which packs and parallelizes them.
+     *
+     * @param tik tikz code
+     * @return Array of Tikz Points in Grid Interface Format
+     * @throws NullPointerException  Parsing Float for circles failed
+     * @throws NumberFormatException Malformed Vector or parsing Float for circles failed
+     * @throws IllegalDrawType       Unknown Draw Code
+     */
+    public static ArrayList<TikType> FromTikToPoints(CharSequence tik, float scale, float rotationDeg) throws NullPointerException, NumberFormatException, IllegalDrawType, IllegalUnitType {
+        return new TikzParser(scale, rotationDeg).parse(tik);
+    }
+
+    /**
+     * Same as {@link #FromVectorsToPoints(CharSequence, float, float, boolean)} but reads the vectors from a file
+     *
+     * @throws IOException the file could not be read
+     */
+    public static TikType FromVectorsFile(Path file, float scale, float rotationDeg, boolean isFilled) throws IOException, NumberFormatException, IllegalDrawType {
+        return FromVectorsToPoints(ByteCharSequence.map(file), scale, rotationDeg, isFilled);
+    }
+
+    /**
+     * Same as {@link #FromTikToPoints(CharSequence, float, float)} but splits large inputs into chunks of whole
+     * statements, parses them on the common ForkJoinPool and packs the shapes into a {@link ShapeStore} chunk by
+     * chunk, so only the shapes of the chunks being parsed exist as objects. The shapes are in source order.
+     */
+    public static ShapeStore FromTikToStore(CharSequence tik, float scale, float rotationDeg) throws NumberFormatException, IllegalDrawType, IllegalUnitType {
+        return FromTikToStore(tik, scale, rotationDeg, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #FromTikToStore(CharSequence, float, float)} but memory maps the file and parses it in place,
+     * so the file is never held as a String
+     *
+     * @throws IOException the file could not be read
+     */
+    public static ShapeStore FromTikFileToStore(Path file, float scale, float rotationDeg) throws IOException, NumberFormatException, IllegalDrawType, IllegalUnitType {
+        return FromTikToStore(ByteCharSequence.map(file), scale, rotationDeg);
+    }
+
+    /**
+     * Parses the Tikz code in chunks that end between two statements, in parallel for inputs of two chunks or
+     * more, and packs each chunk before the next one is parsed on the same thread
+     *
+     * @param tik  tikz code
+     * @param pool pool used to parse the chunks
+     * @return shapes in source order
+     * @throws NumberFormatException Malformed Vector
+     * @throws IllegalDrawType       Unknown Draw Code, the first one in the source is reported
+     */
+    public static ShapeStore FromTikToStore(CharSequence tik, float scale, float rotationDeg, ForkJoinPool pool) throws NumberFormatException, IllegalDrawType, IllegalUnitType {
+        ShapeStore store = new ShapeStore();
+        if (tik.length() < PARALLEL_CHUNK_SIZE * 2 || pool.getParallelism() < 2) {
+            TikzParser parser = new TikzParser(scale, rotationDeg);
+            ArrayList<TikType> chunk = new ArrayList<>();
+            int start = 0;
+            while (start < tik.length()) {
+                int end = nextStatementBoundary(tik, start, Math.min(start + PARALLEL_CHUNK_SIZE, tik.length()));
+                parser.parse(tik, start, end, chunk);
+                store.addAll(chunk);
+                chunk.clear();
+                start = end;
+            }
+            return store;
+        }
+
+        List<Callable<ShapeStore>> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < tik.length()) {
+            int end = nextStatementBoundary(tik, start, Math.min(start + PARALLEL_CHUNK_SIZE, tik.length()));
+            final int chunkStart = start;
+            chunks.add(() -> {
+                ArrayList<TikType> chunk = new ArrayList<>();
+                new TikzParser(scale, rotationDeg).parse(tik, chunkStart, end, chunk);
+                ShapeStore packed = new ShapeStore();
+                packed.addAll(chunk);
+                return packed;
+            });
+            start = end;
+        }
+        for (ShapeStore chunk : invokeInOrder(chunks, pool)) {
+            store.addAll(chunk);
+        }
+        return store;
+    }
+
+    /**
+     * Runs the tasks on the pool and collects their results in order, rethrowing the first failure
+     */
+    private static <T> List<T> invokeInOrder(List<Callable<T>> tasks, ForkJoinPool pool) throws IllegalUnitType {
+        List<Future<T>> results = pool.invokeAll(tasks);
+        List<T> values = new ArrayList<>(results.size());
+        try {
+            for (Future<T> result : results) {
+                values.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof IllegalUnitType) throw (IllegalUnitType) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            for (Future<T> result : results) {
+                result.cancel(false);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Finds the first line at or after from that starts a new command right after a finished statement,
+     * so the text can be split there without cutting a statement in half. The text is read from the start of
+     * the chunk, so lines inside the braces of a node, which may end in ';' or start with a command, are never
+     * taken for the end of a statement.
+     *
+     * @param start start of the chunk, which is between two statements
+     * @param from  first index the chunk may end at
+     * @return the index the next chunk starts at, or the length of the input
+     */
+    static int nextStatementBoundary(CharSequence tik, int start, int from) {
+        int length = tik.length();
+        int depth = 0;
+        for (int i = start; i < length; i++) {
+            char c = tik.charAt(i);
+            if (c == '\\') {
+                // escaped braces don't count, like in the parser
+                i++;
+                continue;
+            }
+            if (c == '{') {
+                depth++;
+                continue;
+            }
+            if (c == '}') {
+                if (depth > 0) depth--;
+                continue;
+            }
+            if (c == '%' && depth == 0) {
+                // braces in comments don't count either
+                while (i + 1 < length && tik.charAt(i + 1) != '\n') i++;
+                continue;
+            }
+            if (c != '\n' || depth > 0 || i < from) continue;
+            int previous = i - 1;
+            while (previous >= 0 && isBlank(tik.charAt(previous))) previous--;
+            if (previous < 0 || tik.charAt(previous) != ';') continue;
+            int next = i + 1;
+            while (next < length && isBlank(tik.charAt(next))) next++;
+            if (next < length && tik.charAt(next) == '\\') return i + 1;
+        }
+        return length;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Converts a list of vectors into a polygon usable by this program
+     *
+     * @param vectorInput List of vectors
+     * @param scale       How much to scale the output by
+     * @param rotationDeg how much to rotate by in the clockwise direction
+     * @param isFilled    whether the polygon is filled
+     * @return Array of Tikz Points in Grid Interface Format
+     * @throws NullPointerException  Parsing Float for vectors failed
+     * @throws NumberFormatException Malformed Vector or parsing Float for vectors failed
+     * @throws IllegalDrawType       Unknown Draw Code
+     */
+    public static TikType FromVectorsToPoints(CharSequence vectorInput, float scale, float rotationDeg, boolean isFilled) throws NullPointerException, NumberFormatException, IllegalDrawType {
+        TikType tikType = new TikzParser(scale, rotationDeg).parseVectors(vectorInput);
+        tikType.isFilled = isFilled;
+        return tikType;
+    }
+
+    /**
+     * Gets how many of a two letter TeX unit make up a centimeter
+     *
+     * @return the conversion, or -1 for an unknown unit
+     */
+    static float getConversion(char first, char second) {
+        switch (first) {
+            case 'p':
+                if (second == 't') return 28.45274f;   // cm / pt
+                if (second == 'c') return 2.37106f;    // cm / pc
+                break;
+            case 'm':
+                if (second == 'm') return 10;          // cm / mm
+                break;
+            case 'c':
+                if (second == 'm') return 1;           // cm / cm
+                break;
+            case 'e':
+                if (second == 'x') return 6.6084f;     // cm / ex
+                if (second == 'm') return 2.84528f;    // cm / em
+                break;
+            case 'b':
+                if (second == 'p') return 28.34677f;   // cm / bp
+                break;
+            case 'd':
+                if (second == 'd') return 26.59117f;   // cm / dd
+                break;
+            case 'i':
+                if (second == 'n') return 0.3927f;     // cm / in
+                break;
+        }
+        return -1;
+    }
+
+    public static class IllegalUnitType extends Exception {
+        public IllegalUnitType(String error) {
+            super(error);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tikz.grid;
+
+/**
+ * Ear clipping triangulation of simple polygons. Works with either winding order and tolerates
+ * duplicated or collinear vertices, such as the closing vertex of a polygon drawn in the editor.
+ */
+public final class PolygonTriangulator {
+    private PolygonTriangulator() {
+    }
+
+    /**
+     * Triangulates a polygon given as flat (x, y) pairs
+     *
+     * @param vertices flat vertex array
+     * @return triangle indices into the vertex list, three per triangle
+     */
+    public static short[] computeTriangles(float[] vertices) {
+        int n = vertices.length / 2;
+        if (n < 3) return new short[0];
+
+        // Work on a ring of indices ordered counter-clockwise
+        short[] ring = new short[n];
+        boolean clockwise = signedArea(vertices) < 0;
+        for (int i = 0; i < n; i++) {
+            ring[i] = (short) (clockwise ? n - 1 - i : i);
+        }
+
+        short[] triangles = new short[(n - 2) * 3];
+        int count = 0;
+        int remaining = n;
+        int i = 0;
+        while (remaining > 3) {
+            int found = -1;
+            for (int tries = 0; tries < remaining; tries++) {
+                int k = (i + tries) % remaining;
+                if (isEar(vertices, ring, remaining, k)) {
+                    found = k;
+                    break;
+                }
+            }
+            // Self intersecting input has no ear left, so clip anyway to guarantee progress
+            if (found == -1) found = i % remaining;
+
+            triangles[count++] = ring[(found + remaining - 1) % remaining];
+            triangles[count++] = ring[found];
+            triangles[count++] = ring[(found + 1) % remaining];
+            System.arraycopy(ring, found + 1, ring, found, remaining - found - 1);
+            remaining--;
+            i = found == 0 ? 0 : found - 1;
+        }
+        triangles[count++] = ring[0];
+        triangles[count++] = ring[1];
+        triangles[count] = ring[2];
+        return triangles;
+    }
+
+    private static boolean isEar(float[] v, short[] ring, int remaining, int k) {
+        int p = ring[(k + remaining - 1) % remaining] * 2;
+        int c = ring[k] * 2;
+        int q = ring[(k + 1) % remaining] * 2;
+        float ax = v[p], ay = v[p + 1];
+        float bx = v[c], by = v[c + 1];
+        float cx = v[q], cy = v[q + 1];
+
+        float cross = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        if (cross < 0) return false;
+        // Removing a collinear or duplicate vertex never changes the outline
+        if (cross == 0) return true;
+
+        for (int j = 0; j < remaining; j++) {
+            int r = ring[j] * 2;
+            if (r == p || r == c || r == q) continue;
+            float px = v[r], py = v[r + 1];
+            if ((px == ax && py == ay) || (px == bx && py == by) || (px == cx && py == cy)) continue;
+            if (side(ax, ay, bx, by, px, py) > 0 && side(bx, by, cx, cy, px, py) > 0
+                && side(cx, cy, ax, ay, px, py) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static float side(float ax, float ay, float bx, float by, float px, float py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    private static float signedArea(float[] v) {
+        float area = 0;
+        int n = v.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            area += v[j * 2] * v[i * 2 + 1] - v[i * 2] * v[j * 2 + 1];
+        }
+        return area / 2;
+    }
+}
@@ -0,0 +1,383 @@
+package com.tikz.grid;
+
+import com.tikz.ColorHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Stores shapes in a few primitive arrays instead of one object graph per shape, so documents with millions of
+ * shapes take tens of bytes per shape instead of hundreds. The coordinates of all shapes are packed in one float
+ * array with an offset table, the style of a shape is packed in an int, and colors and texts are shared through
+ * tables of the distinct values.
+ * <p>
+ * Shapes are read by copying them into a {@link TikType} that the caller reuses, see {@link #get(int, TikType)}.
+ */
+public class ShapeStore {
+    private static final DrawType[] TYPES = DrawType.values();
+    private static final DrawType.LineThickness[] THICKNESSES = DrawType.LineThickness.values();
+
+    // layout of the style of a shape
+    private static final int TYPE_MASK = 0x7;
+    private static final int DASHED = 1 << 3;
+    private static final int FRONT_ARROW = 1 << 4;
+    private static final int BACK_ARROW = 1 << 5;
+    private static final int FILLED = 1 << 6;
+    private static final int THICKNESS_SHIFT = 7;
+    private static final int THICKNESS_MASK = 0x7;
+    private static final int COLOR_SHIFT = 10;
+    private static final int MAX_COLORS = 1 << (32 - COLOR_SHIFT);
+
+    private int size = 0;
+    private int[] styles = new int[64];
+    // index of the text of every shape, or -1
+    private int[] texts = new int[64];
+    // coordinates of shape i are coordinates[offsets[i]] up to coordinates[offsets[i + 1]]
+    private int[] offsets = new int[65];
+    private float[] coordinates = new float[256];
+
+    private ArrayList<ColorHolder> colors = new ArrayList<>();
+    private HashMap<ColorKey, Integer> colorIndices = new HashMap<>();
+    private final ColorKey probe = new ColorKey();
+    private ArrayList<String> textValues = new ArrayList<>();
+    private HashMap<String, Integer> textIndices = new HashMap<>();
+    // vertices taken off shapes read with fewer vertices than before, reused by later reads
+    private final ArrayList<Vec2> spareVertices = new ArrayList<>();
+
+    /**
+     * Everything about a color that is written to a shape, so colors that look the same share an entry
+     */
+    private static final class ColorKey {
+        String name;
+        float percentValue;
+        float r, g, b;
+
+        ColorKey set(ColorHolder color) {
+            name = color.name;
+            percentValue = color.percentValue;
+            r = color.r;
+            g = color.g;
+            b = color.b;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ColorKey)) return false;
+            ColorKey other = (ColorKey) obj;
+            return Objects.equals(name, other.name)
+                && Float.floatToIntBits(percentValue) == Float.floatToIntBits(other.percentValue)
+                && Float.floatToIntBits(r) == Float.floatToIntBits(other.r)
+                && Float.floatToIntBits(g) == Float.floatToIntBits(other.g)
+                && Float.floatToIntBits(b) == Float.floatToIntBits(other.b);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Objects.hashCode(name);
+            hash = hash * 31 + Float.floatToIntBits(percentValue);
+            hash = hash * 31 + Float.floatToIntBits(r);
+            hash = hash * 31 + Float.floatToIntBits(g);
+            return hash * 31 + Float.floatToIntBits(b);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies a shape to the end of the store. Later changes to the shape don't change the store.
+     *
+     * @param tik shape to add
+     * @return index of the shape
+     */
+    public int add(TikType tik) {
+        int head = headSize(tik.type);
+        int count = head + (hasVertices(tik.type) ? tik.vertices.size() * 2 : 0);
+        ensureShapeCapacity(size + 1);
+        int offset = offsets[size];
+        ensureCoordinateCapacity(offset + count);
+
+        if (head >= 2) {
+            coordinates[offset] = tik.origin.x;
+            coordinates[offset + 1] = tik.origin.y;
+        }
+        if (head == 4) {
+            coordinates[offset + 2] = tik.endPoint.x;
+            coordinates[offset + 3] = tik.endPoint.y;
+        }
+        for (int i = offset + head, v = 0; i < offset + count; i += 2, v++) {
+            Vec2 vertex = tik.vertices.get(v);
+            coordinates[i] = vertex.x;
+            coordinates[i + 1] = vertex.y;
+        }
+
+        styles[size] = tik.type.ordinal()
+            | (tik.dashed ? DASHED : 0)
+            | (tik.frontArrow ? FRONT_ARROW : 0)
+            | (tik.backArrow ? BACK_ARROW : 0)
+            | (tik.isFilled ? FILLED : 0)
+            | tik.lineThickness.ordinal() << THICKNESS_SHIFT
+            | colorIndex(tik.color) << COLOR_SHIFT;
+        texts[size] = tik.type == DrawType.TEXT ? textIndex(tik.text) : -1;
+        offsets[size + 1] = offset + count;
+        return size++;
+    }
+
+    /**
+     * Copies every shape of another store to the end of this one
+     */
+    public void addAll(ShapeStore other) {
+        ensureShapeCapacity(size + other.size);
+        int base = offsets[size];
+        int count = other.offsets[other.size];
+        ensureCoordinateCapacity(base + count);
+        System.arraycopy(other.coordinates, 0, coordinates, base, count);
+
+        // the tables of the other store are merged into this one's
+        int[] colorMap = new int[other.colors.size()];
+        for (int i = 0; i < colorMap.length; i++) {
+            colorMap[i] = colorIndex(other.colors.get(i));
+        }
+        int[] textMap = new int[other.textValues.size()];
+        for (int i = 0; i < textMap.length; i++) {
+            textMap[i] = textIndex(other.textValues.get(i));
+        }
+        for (int i = 0; i < other.size; i++) {
+            int style = other.styles[i];
+            styles[size + i] = style & ((1 << COLOR_SHIFT) - 1) | colorMap[style >>> COLOR_SHIFT] << COLOR_SHIFT;
+            texts[size + i] = other.texts[i] < 0 ? -1 : textMap[other.texts[i]];
+            offsets[size + i + 1] = base + other.offsets[i + 1];
+        }
+        size += other.size;
+    }
+
+    /**
+     * Copies every shape of a list to the end of the store
+     */
+    public void addAll(Iterable<TikType> tikzShapes) {
+        for (TikType tik : tikzShapes) {
+            add(tik);
+        }
+    }
+
+    /**
+     * Copies a shape into a reusable shape. Its vertices are reused or added as needed, without allocating once
+     * the store has read its largest shape. Its cached triangulation and tessellation are detached rather than
+     * invalidated, so a caller can cache tessellations per index and hand them to the shape after reading it. The
+     * color is shared by the store and must not be changed.
+     *
+     * @param index index of the shape
+     * @param out   shape to overwrite, which must not share its points or vertices with another shape
+     * @return out
+     */
+    public TikType get(int index, TikType out) {
+        checkIndex(index);
+        int style = styles[index];
+        DrawType type = TYPES[style & TYPE_MASK];
+        out.type = type;
+        out.dashed = (style & DASHED) != 0;
+        out.frontArrow = (style & FRONT_ARROW) != 0;
+        out.backArrow = (style & BACK_ARROW) != 0;
+        out.isFilled = (style & FILLED) != 0;
+        out.lineThickness = THICKNESSES[(style >>> THICKNESS_SHIFT) & THICKNESS_MASK];
+        out.color = colors.get(style >>> COLOR_SHIFT);
+        out.text = texts[index] < 0 ? "" : textValues.get(texts[index]);
+
+        int offset = offsets[index];
+        int end = offsets[index + 1];
+        int head = headSize(type);
+        if (out.origin == null) out.origin = new Vec2();
+        if (out.endPoint == null) out.endPoint = new Vec2();
+        out.origin.set(head >= 2 ? coordinates[offset] : 0, head >= 2 ? coordinates[offset + 1] : 0);
+        out.endPoint.set(head == 4 ? coordinates[offset + 2] : 0, head == 4 ? coordinates[offset + 3] : 0);
+
+        ArrayList<Vec2> vertices = out.vertices;
+        int count = (end - offset - head) / 2;
+        while (vertices.size() > count) {
+            spareVertices.add(vertices.remove(vertices.size() - 1));
+        }
+        for (int v = 0, i = offset + head; v < count; v++, i += 2) {
+            if (v < vertices.size()) {
+                vertices.get(v).set(coordinates[i], coordinates[i + 1]);
+            } else {
+                Vec2 vertex = spareVertices.isEmpty() ? new Vec2() : spareVertices.remove(spareVertices.size() - 1);
+                vertices.add(vertex.set(coordinates[i], coordinates[i + 1]));
+            }
+        }
+        out.triangleLocations = null;
+        out.flatVertices = null;
+        out.tessellation = null;
+        return out;
+    }
+
+    public DrawType getType(int index) {
+        checkIndex(index);
+        return TYPES[styles[index] & TYPE_MASK];
+    }
+
+    /**
+     * @return the text of a text shape, or an empty string
+     */
+    public String getText(int index) {
+        checkIndex(index);
+        return texts[index] < 0 ? "" : textValues.get(texts[index]);
+    }
+
+    /**
+     * @return the color of a shape, shared by the store so it must not be changed
+     */
+    public ColorHolder getColor(int index) {
+        checkIndex(index);
+        return colors.get(styles[index] >>> COLOR_SHIFT);
+    }
+
+    /**
+     * @return the x of the origin of a shape, or 0 for multi-lines
+     */
+    public float getOriginX(int index) {
+        checkIndex(index);
+        return headSize(getType(index)) >= 2 ? coordinates[offsets[index]] : 0;
+    }
+
+    /**
+     * @return the y of the origin of a shape, or 0 for multi-lines
+     */
+    public float getOriginY(int index) {
+        checkIndex(index);
+        return headSize(getType(index)) >= 2 ? coordinates[offsets[index] + 1] : 0;
+    }
+
+    /**
+     * Removes the last shape. Its color and text stay in the tables until the store is cleared.
+     */
+    public void removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("The store is empty");
+        }
+        size--;
+    }
+
+    /**
+     * Exchanges the shapes of two stores without copying them
+     */
+    public void swap(ShapeStore other) {
+        int otherSize = other.size;
+        other.size = size;
+        size = otherSize;
+
+        int[] otherStyles = other.styles;
+        other.styles = styles;
+        styles = otherStyles;
+        int[] otherTexts = other.texts;
+        other.texts = texts;
+        texts = otherTexts;
+        int[] otherOffsets = other.offsets;
+        other.offsets = offsets;
+        offsets = otherOffsets;
+        float[] otherCoordinates = other.coordinates;
+        other.coordinates = coordinates;
+        coordinates = otherCoordinates;
+
+        ArrayList<ColorHolder> otherColors = other.colors;
+        other.colors = colors;
+        colors = otherColors;
+        HashMap<ColorKey, Integer> otherColorIndices = other.colorIndices;
+        other.colorIndices = colorIndices;
+        colorIndices = otherColorIndices;
+        ArrayList<String> otherTextValues = other.textValues;
+        other.textValues = textValues;
+        textValues = otherTextValues;
+        HashMap<String, Integer> otherTextIndices = other.textIndices;
+        other.textIndices = textIndices;
+        textIndices = otherTextIndices;
+    }
+
+    public void clear() {
+        size = 0;
+        colors.clear();
+        colorIndices.clear();
+        textValues.clear();
+        textIndices.clear();
+    }
+
+    /**
+     * @return bytes used by the arrays, not counting the tables of colors and texts
+     */
+    public long getMemoryBytes() {
+        return (long) styles.length * 4 + (long) texts.length * 4 + (long) offsets.length * 4
+            + (long) coordinates.length * 4;
+    }
+
+    /**
+     * Floats of the origin and end point stored before the vertices
+     */
+    private static int headSize(DrawType type) {
+        switch (type) {
+            case MULTI_LINE:
+                return 0;
+            case TEXT:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+
+    private static boolean hasVertices(DrawType type) {
+        return type == DrawType.MULTI_LINE || type == DrawType.BEZIER;
+    }
+
+    private int colorIndex(ColorHolder color) {
+        Integer index = colorIndices.get(probe.set(color));
+        if (index != null) {
+            return index;
+        }
+        if (colors.size() == MAX_COLORS) {
+            throw new IllegalStateException("More than " + MAX_COLORS + " colors");
+        }
+        // the store keeps its own copy, so changing the color of a shape later doesn't change the store
+        colors.add(color.clone());
+        colorIndices.put(new ColorKey().set(color), colors.size() - 1);
+        return colors.size() - 1;
+    }
+
+    private int textIndex(String text) {
+        Integer index = textIndices.get(text);
+        if (index != null) {
+            return index;
+        }
+        textValues.add(text);
+        textIndices.put(text, textValues.size() - 1);
+        return textValues.size() - 1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size + " shapes");
+        }
+    }
+
+    private void ensureShapeCapacity(int capacity) {
+        if (capacity <= styles.length) {
+            return;
+        }
+        int length = Math.max(capacity, styles.length + (styles.length >> 1));
+        styles = Arrays.copyOf(styles, length);
+        texts = Arrays.copyOf(texts, length);
+        offsets = Arrays.copyOf(offsets, length + 1);
+    }
+
+    private void ensureCoordinateCapacity(int capacity) {
+        if (capacity <= coordinates.length) {
+            return;
+        }
+        coordinates = Arrays.copyOf(coordinates, Math.max(capacity, coordinates.length + (coordinates.length >> 1)));
+    }
+}
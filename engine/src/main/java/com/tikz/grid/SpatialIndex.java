@@ -0,0 +1,278 @@
+package com.tikz.grid;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the bounds of a list of shapes, used to find the shapes inside the visible part of
+ * the editor without looking at every shape. Shapes are identified by their position in the list, and like
+ * the list itself the index only grows or shrinks at the end.
+ * <p>
+ * Shapes must not be moved while they are indexed.
+ */
+public class SpatialIndex {
+    // Shapes covering more cells than this are kept in a separate list and tested on every query
+    private static final int MAX_CELLS_PER_SHAPE = 64;
+
+    private final float cellSize;
+    private final float[] scratch = new float[4];
+
+    // per shape: bounds as minX, minY, maxX, maxY and the covered cells as minCx, minCy, maxCx, maxCy
+    private float[] bounds = new float[64];
+    private int[] cells = new int[64];
+    // one bit per id for the shapes touching the queried cells, read in id order so results need no sorting
+    private long[] candidates = new long[1];
+    private int size = 0;
+
+    // open addressed map from a packed cell coordinate to the ids of the shapes touching it
+    private long[] cellKeys = new long[64];
+    private int[][] cellIds = new int[64][];
+    private int[] cellSizes = new int[64];
+    private int cellCount = 0;
+
+    private int[] large = new int[16];
+    private int largeCount = 0;
+
+    private int[] results = new int[64];
+
+    /**
+     * @param cellSize width and height of a cell in grid units
+     */
+    public SpatialIndex(float cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("The cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indexes a shape as the next id, which is the current {@link #size()}
+     *
+     * @param tik shape to index
+     */
+    public void add(TikType tik) {
+        int id = size;
+        ensureShapeCapacity(id + 1);
+        tik.getBounds(scratch);
+        System.arraycopy(scratch, 0, bounds, id * 4, 4);
+
+        int minCx = cell(scratch[0]);
+        int minCy = cell(scratch[1]);
+        int maxCx = cell(scratch[2]);
+        int maxCy = cell(scratch[3]);
+        if (((long) maxCx - minCx + 1) * ((long) maxCy - minCy + 1) > MAX_CELLS_PER_SHAPE) {
+            // an empty range marks the shape as large
+            minCx = 1;
+            maxCx = 0;
+            if (largeCount == large.length) {
+                large = Arrays.copyOf(large, largeCount * 2);
+            }
+            large[largeCount++] = id;
+        } else {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                for (int cy = minCy; cy <= maxCy; cy++) {
+                    addToCell(key(cx, cy), id);
+                }
+            }
+        }
+        cells[id * 4] = minCx;
+        cells[id * 4 + 1] = minCy;
+        cells[id * 4 + 2] = maxCx;
+        cells[id * 4 + 3] = maxCy;
+        size++;
+    }
+
+    public void addAll(Iterable<TikType> tikzShapes) {
+        for (TikType tik : tikzShapes) {
+            add(tik);
+        }
+    }
+
+    /**
+     * Removes the shape with the highest id
+     */
+    public void removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("The index is empty");
+        }
+        int id = --size;
+        int minCx = cells[id * 4];
+        int minCy = cells[id * 4 + 1];
+        int maxCx = cells[id * 4 + 2];
+        int maxCy = cells[id * 4 + 3];
+        if (minCx > maxCx) {
+            largeCount--;
+            return;
+        }
+        // ids are added in order, so the removed id is the last one in each of its cells
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                cellSizes[findCell(key(cx, cy))]--;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(cellIds, null);
+        Arrays.fill(cellSizes, 0);
+        cellCount = 0;
+        largeCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Finds every shape whose bounds intersect a rectangle
+     *
+     * @return number of shapes found, their ids are at the start of {@link #results()} in increasing order
+     */
+    public int query(float minX, float minY, float maxX, float maxY) {
+        int minCx = cell(minX);
+        int minCy = cell(minY);
+        int maxCx = cell(maxX);
+        int maxCy = cell(maxY);
+        if (results.length < size) {
+            results = new int[Math.max(size, results.length * 2)];
+        }
+
+        int count = 0;
+        // When zoomed out far enough the cells outnumber the shapes, so checking every shape is cheaper
+        if (((long) maxCx - minCx + 1) * ((long) maxCy - minCy + 1) > size) {
+            for (int id = 0; id < size; id++) {
+                if (intersects(id, minX, minY, maxX, maxY)) {
+                    results[count++] = id;
+                }
+            }
+            return count;
+        }
+
+        int first = size;
+        int last = -1;
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                int slot = findCell(key(cx, cy));
+                if (slot < 0) continue;
+                int[] ids = cellIds[slot];
+                int n = cellSizes[slot];
+                for (int i = 0; i < n; i++) {
+                    candidates[ids[i] >>> 6] |= 1L << ids[i];
+                }
+                if (n > 0) {
+                    // ids are added in order, so every cell is sorted
+                    first = Math.min(first, ids[0]);
+                    last = Math.max(last, ids[n - 1]);
+                }
+            }
+        }
+        for (int i = 0; i < largeCount; i++) {
+            candidates[large[i] >>> 6] |= 1L << large[i];
+            first = Math.min(first, large[i]);
+            last = Math.max(last, large[i]);
+        }
+        // reading the bits in order keeps the draw order of the shapes, and clears them for the next query
+        for (int word = first >> 6; word <= last >> 6; word++) {
+            long bits = candidates[word];
+            candidates[word] = 0;
+            while (bits != 0) {
+                int id = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (intersects(id, minX, minY, maxX, maxY)) {
+                    results[count++] = id;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return ids found by the last {@link #query(float, float, float, float)}
+     */
+    public int[] results() {
+        return results;
+    }
+
+    private boolean intersects(int id, float minX, float minY, float maxX, float maxY) {
+        int b = id * 4;
+        return bounds[b] <= maxX && bounds[b + 2] >= minX && bounds[b + 1] <= maxY && bounds[b + 3] >= minY;
+    }
+
+    private int cell(float value) {
+        float scaled = (float) Math.floor(value / cellSize);
+        if (Float.isNaN(scaled)) return 0;
+        // clamp so huge or infinite coordinates still fall in a cell
+        return (int) Math.max(-(1 << 30), Math.min(1 << 30, scaled));
+    }
+
+    private static long key(int cx, int cy) {
+        return (long) cx << 32 | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int findCell(long key) {
+        int mask = cellKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (cellIds[slot] != null) {
+            if (cellKeys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void addToCell(long key, int id) {
+        int mask = cellKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (cellIds[slot] != null && cellKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (cellIds[slot] == null) {
+            cellKeys[slot] = key;
+            cellIds[slot] = new int[4];
+            if (++cellCount * 2 > cellKeys.length) {
+                growCells();
+                slot = findCell(key);
+            }
+        }
+        int[] ids = cellIds[slot];
+        if (cellSizes[slot] == ids.length) {
+            ids = cellIds[slot] = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[cellSizes[slot]++] = id;
+    }
+
+    private void growCells() {
+        long[] oldKeys = cellKeys;
+        int[][] oldIds = cellIds;
+        int[] oldSizes = cellSizes;
+        cellKeys = new long[oldKeys.length * 2];
+        cellIds = new int[oldKeys.length * 2][];
+        cellSizes = new int[oldKeys.length * 2];
+        int mask = cellKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIds[i] == null) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (cellIds[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            cellKeys[slot] = oldKeys[i];
+            cellIds[slot] = oldIds[i];
+            cellSizes[slot] = oldSizes[i];
+        }
+    }
+
+    private void ensureShapeCapacity(int capacity) {
+        if (bounds.length < capacity * 4) {
+            int length = Math.max(capacity * 4, bounds.length * 2);
+            bounds = Arrays.copyOf(bounds, length);
+            cells = Arrays.copyOf(cells, length);
+        }
+        if (candidates.length * 64 < capacity) {
+            candidates = Arrays.copyOf(candidates, Math.max((capacity + 63) / 64, candidates.length * 2));
+        }
+    }
+}
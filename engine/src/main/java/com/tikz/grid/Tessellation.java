@@ -0,0 +1,251 @@
+package com.tikz.grid;
+
+import java.util.Arrays;
+
+/**
+ * The line segments and triangles that draw a shape, in grid units. Dashes, arrowheads and circle segments
+ * are sized in screen pixels, so a tessellation is only valid for the grid spacing, scaling and zoom it was
+ * built with, and panning only moves it.
+ */
+public class Tessellation {
+    // sizes in pixels before scaling and zoom, matching the editor's drawing code
+    private static final float DASH_SPACING = 20f;
+    private static final float ARROW_HEAD_SIZE = 20f;
+    private static final float SHORT_EDGE = 20f;
+    private static final float DASHED_ARC_LENGTH = 30f;
+    // largest distance in pixels between a curve and its segments
+    private static final float BEZIER_TOLERANCE = 0.25f;
+
+    /** x1, y1, x2, y2 of every line segment */
+    public float[] lines = new float[64];
+    public int lineCount = 0;
+    /** x1, y1, x2, y2, x3, y3 of every filled triangle */
+    public float[] triangles = new float[36];
+    public int triangleCount = 0;
+
+    private boolean valid = false;
+    private float pixelsPerUnit;
+    private float scaling;
+    private float zoomLevel;
+    private float dashSpacing;
+    private float arrowHeadSize;
+    private final BezierFlattener bezier = new BezierFlattener();
+
+    /**
+     * @return whether the tessellation was built with these parameters and the shape has not changed since
+     */
+    public boolean matches(float pixelsPerUnit, float scaling, float zoomLevel) {
+        return valid && this.pixelsPerUnit == pixelsPerUnit && this.scaling == scaling && this.zoomLevel == zoomLevel;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Tessellates a shape, replacing the previous contents
+     *
+     * @param tik           shape to tessellate, text is not supported
+     * @param frontArrow    whether to draw the front arrow, shapes that are still being drawn may hide it
+     * @param pixelsPerUnit screen pixels per grid unit
+     * @param scaling       scaling of the window
+     * @param zoomLevel     zoom of the editor
+     * @return this tessellation
+     * @throws IllegalDrawType the shape can't be tessellated
+     */
+    public Tessellation set(TikType tik, boolean frontArrow, float pixelsPerUnit, float scaling, float zoomLevel) {
+        this.pixelsPerUnit = pixelsPerUnit;
+        this.scaling = scaling;
+        this.zoomLevel = zoomLevel;
+        dashSpacing = DASH_SPACING * scaling * zoomLevel / pixelsPerUnit;
+        arrowHeadSize = ARROW_HEAD_SIZE * scaling * zoomLevel / pixelsPerUnit;
+        lineCount = 0;
+        triangleCount = 0;
+
+        switch (tik.type) {
+            case LINE:
+                line(tik.origin.x, tik.origin.y, tik.endPoint.x, tik.endPoint.y, tik.dashed, frontArrow, tik.backArrow);
+                break;
+            case CIRCLE:
+                circle(tik);
+                break;
+            case MULTI_LINE:
+                polygon(tik, frontArrow);
+                break;
+            case BEZIER:
+                bezier(tik, frontArrow);
+                break;
+            default:
+                throw new IllegalDrawType("Can't tessellate DrawType: " + tik.type);
+        }
+        valid = true;
+        return this;
+    }
+
+    private void circle(TikType tik) {
+        float cx = tik.origin.x;
+        float cy = tik.origin.y;
+        float radius = tik.origin.dst(tik.endPoint);
+        float radiusPixels = radius * pixelsPerUnit;
+        int segments = Math.max(1, (int) (6 * (float) Math.cbrt(radiusPixels)));
+        double angularSeparation = 2 * Math.PI / segments;
+
+        float px = cx + radius;
+        float py = cy;
+        for (int i = 1; i <= segments; i++) {
+            double alpha = angularSeparation * i;
+            float x = cx + (float) (radius * Math.cos(alpha));
+            float y = cy + (float) (radius * Math.sin(alpha));
+            if (tik.isFilled) {
+                triangle(cx, cy, px, py, x, y);
+            } else if (angularSeparation * radiusPixels > DASHED_ARC_LENGTH || i % 2 == 0 || !tik.dashed) {
+                line(px, py, x, y, tik.dashed, false, false);
+            }
+            px = x;
+            py = y;
+        }
+    }
+
+    private void polygon(TikType tik, boolean frontArrow) {
+        if (tik.isFilled && tik.vertices.size() >= 3) {
+            if (tik.triangleLocations == null) {
+                tik.triangulate();
+            }
+            float[] v = tik.flatVertices;
+            short[] t = tik.triangleLocations;
+            for (int i = 0; i < t.length; i += 3) {
+                triangle(v[t[i] * 2], v[t[i] * 2 + 1], v[t[i + 1] * 2], v[t[i + 1] * 2 + 1],
+                    v[t[i + 2] * 2], v[t[i + 2] * 2 + 1]);
+            }
+        }
+
+        int last = tik.vertices.size() - 1;
+        Vec2 previous = tik.vertices.get(0);
+        if (last >= 1) {
+            Vec2 v = tik.vertices.get(1);
+            line(previous.x, previous.y, v.x, v.y, tik.dashed, false, tik.backArrow);
+            previous = v;
+        }
+        float shortEdge = SHORT_EDGE * scaling / pixelsPerUnit;
+        for (int i = 2; i < last; i++) {
+            Vec2 v = tik.vertices.get(i);
+            // alternate short dashed edges so they still look dashed
+            boolean isShort = previous.dst(v) < shortEdge;
+            if (!isShort || !tik.dashed || i % 2 == 1) {
+                line(previous.x, previous.y, v.x, v.y, tik.dashed, false, false);
+            }
+            previous = v;
+        }
+        Vec2 end = tik.vertices.get(last);
+        line(previous.x, previous.y, end.x, end.y, tik.dashed, frontArrow, false);
+    }
+
+    private void bezier(TikType tik, boolean frontArrow) {
+        int count = bezier.flatten(tik, BEZIER_TOLERANCE / pixelsPerUnit);
+        float[] p = bezier.points();
+        if (tik.dashed) {
+            dashedPolyline(p, count);
+        } else {
+            for (int i = 0; i < count - 1; i++) {
+                segment(p[i * 2], p[i * 2 + 1], p[i * 2 + 2], p[i * 2 + 3]);
+            }
+        }
+        int last = (count - 2) * 2;
+        arrows(p[0], p[1], p[2], p[3], false, tik.backArrow);
+        arrows(p[last], p[last + 1], p[last + 2], p[last + 3], frontArrow, false);
+    }
+
+    /**
+     * Dashes a polyline with the same pattern as a straight dashed line, continuing the pattern across
+     * vertices so curves flattened into many short pieces still look dashed
+     */
+    private void dashedPolyline(float[] p, int count) {
+        float dashLength = dashSpacing / 2;
+        float remaining = dashLength;
+        boolean drawing = true;
+        for (int i = 0; i < count - 1; i++) {
+            float x = p[i * 2];
+            float y = p[i * 2 + 1];
+            float dx = p[i * 2 + 2] - x;
+            float dy = p[i * 2 + 3] - y;
+            float length = (float) Math.hypot(dx, dy);
+            float position = 0;
+            while (length - position > remaining) {
+                position += remaining;
+                float nx = p[i * 2] + dx * position / length;
+                float ny = p[i * 2 + 1] + dy * position / length;
+                if (drawing) segment(x, y, nx, ny);
+                x = nx;
+                y = ny;
+                drawing = !drawing;
+                remaining = dashLength;
+            }
+            if (drawing) segment(x, y, p[i * 2 + 2], p[i * 2 + 3]);
+            remaining -= length - position;
+        }
+    }
+
+    private void line(float x1, float y1, float x2, float y2, boolean dashed, boolean frontArrow, boolean backArrow) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        if (dashed) {
+            float distance = (float) Math.hypot(dx, dy);
+            int numDots = (int) (distance / dashSpacing);
+            float stepX = dashSpacing * dx / distance;
+            float stepY = dashSpacing * dy / distance;
+            float x = x1;
+            float y = y1;
+            for (int i = 0; i < numDots; i++) {
+                segment(x, y, x + stepX / 2, y + stepY / 2);
+                x += stepX;
+                y += stepY;
+            }
+            segment(x, y, x2, y2);
+        } else {
+            segment(x1, y1, x2, y2);
+        }
+
+        arrows(x1, y1, x2, y2, frontArrow, backArrow);
+    }
+
+    private void arrows(float x1, float y1, float x2, float y2, boolean frontArrow, boolean backArrow) {
+        if (!frontArrow && !backArrow) {
+            return;
+        }
+        double angle = Math.atan2(y2 - y1, x2 - x1);
+        float ax = arrowHeadSize / 2 * (float) Math.cos(angle - Math.PI / 6);
+        float ay = arrowHeadSize / 2 * (float) Math.sin(angle - Math.PI / 6);
+        float bx = arrowHeadSize / 2 * (float) Math.cos(angle + Math.PI / 6);
+        float by = arrowHeadSize / 2 * (float) Math.sin(angle + Math.PI / 6);
+        if (frontArrow) {
+            triangle(x2, y2, x2 - ax, y2 - ay, x2 - bx, y2 - by);
+        }
+        if (backArrow) {
+            triangle(x1, y1, x1 + ax, y1 + ay, x1 + bx, y1 + by);
+        }
+    }
+
+    private void segment(float x1, float y1, float x2, float y2) {
+        if (lines.length < (lineCount + 1) * 4) {
+            lines = Arrays.copyOf(lines, lines.length * 2);
+        }
+        int i = lineCount++ * 4;
+        lines[i] = x1;
+        lines[i + 1] = y1;
+        lines[i + 2] = x2;
+        lines[i + 3] = y2;
+    }
+
+    private void triangle(float x1, float y1, float x2, float y2, float x3, float y3) {
+        if (triangles.length < (triangleCount + 1) * 6) {
+            triangles = Arrays.copyOf(triangles, triangles.length * 2);
+        }
+        int i = triangleCount++ * 6;
+        triangles[i] = x1;
+        triangles[i + 1] = y1;
+        triangles[i + 2] = x2;
+        triangles[i + 3] = y2;
+        triangles[i + 4] = x3;
+        triangles[i + 5] = y3;
+    }
+}
@@ -0,0 +1,143 @@
+package com.tikz.grid;
+
+import com.tikz.ColorHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+
+public class TikType {
+    public Vec2 origin = new Vec2();
+    public Vec2 endPoint = new Vec2();
+    public DrawType type;
+    public String text = "";
+    public ArrayList<Vec2> vertices = new ArrayList<>();
+    public short[] triangleLocations;
+    public float[] flatVertices;
+    public Tessellation tessellation;
+    public ColorHolder color = ColorHolder.DEFAULT_COLORS[0].clone();
+    public boolean dashed = false;
+    public boolean frontArrow = false;
+    public boolean backArrow = false;
+    public boolean isFilled = false;
+    public DrawType.LineThickness lineThickness = DrawType.LineThickness.THIN;
+
+    public TikType(Vec2 o, Vec2 e, DrawType type) {
+        this.origin = o;
+        this.endPoint = e;
+        this.type = type;
+    }
+
+    public TikType(Vec2 o, Vec2 e, DrawType type, Vec2... controlPoints) {
+        this.origin = o;
+        this.endPoint = e;
+        this.type = type;
+        Collections.addAll(vertices, controlPoints);
+    }
+
+    public TikType(Vec2 o, DrawType type, String text) {
+        this.origin = o;
+        this.type = type;
+        this.text = text;
+    }
+
+    public TikType(ArrayList<Vec2> vertices, DrawType type) {
+        this.vertices = vertices;
+        this.type = type;
+        if (type != DrawType.MULTI_LINE)
+            throw new IllegalDrawType("The Multi-Line type was not used for Multi-Lines");
+    }
+
+    public void triangulate() {
+        if(vertices.size() < 3) {
+            throw new IllegalStateException("There must be more that 3 vertices");
+        }
+
+        flatVertices = new float[vertices.size() * 2];
+        for (int i = 0; i < vertices.size(); i++) {
+            flatVertices[i * 2] = vertices.get(i).x;
+            flatVertices[i * 2 + 1] = vertices.get(i).y;
+        }
+
+        triangleLocations = PolygonTriangulator.computeTriangles(flatVertices);
+    }
+
+    /**
+     * Gets the cached geometry of the shape, tessellating it again if it was edited or the view was zoomed
+     *
+     * @param pixelsPerUnit screen pixels per grid unit
+     * @param scaling       scaling of the window
+     * @param zoomLevel     zoom of the editor
+     * @return geometry in grid units
+     */
+    public Tessellation getTessellation(float pixelsPerUnit, float scaling, float zoomLevel) {
+        if (tessellation == null) {
+            tessellation = new Tessellation();
+        }
+        if (!tessellation.matches(pixelsPerUnit, scaling, zoomLevel)) {
+            tessellation.set(this, frontArrow, pixelsPerUnit, scaling, zoomLevel);
+        }
+        return tessellation;
+    }
+
+    /**
+     * Drops the cached triangulation and tessellation, must be called after the shape is edited
+     */
+    public void invalidate() {
+        triangleLocations = null;
+        flatVertices = null;
+        if (tessellation != null) {
+            tessellation.invalidate();
+        }
+    }
+
+    /**
+     * Computes the axis aligned bounds of the shape in grid units. Bezier curves use their control points,
+     * which always enclose the curve, and text only covers its anchor point.
+     *
+     * @param out receives minX, minY, maxX, maxY
+     */
+    public void getBounds(float[] out) {
+        float minX, minY, maxX, maxY;
+        if (type == DrawType.CIRCLE) {
+            float radius = origin.dst(endPoint);
+            minX = origin.x - radius;
+            minY = origin.y - radius;
+            maxX = origin.x + radius;
+            maxY = origin.y + radius;
+        } else if (type == DrawType.MULTI_LINE && !vertices.isEmpty()) {
+            minX = maxX = vertices.get(0).x;
+            minY = maxY = vertices.get(0).y;
+        } else if (type == DrawType.TEXT) {
+            minX = maxX = origin.x;
+            minY = maxY = origin.y;
+        } else {
+            minX = Math.min(origin.x, endPoint.x);
+            minY = Math.min(origin.y, endPoint.y);
+            maxX = Math.max(origin.x, endPoint.x);
+            maxY = Math.max(origin.y, endPoint.y);
+        }
+        if (type == DrawType.MULTI_LINE || type == DrawType.BEZIER) {
+            for (Vec2 v : vertices) {
+                minX = Math.min(minX, v.x);
+                minY = Math.min(minY, v.y);
+                maxX = Math.max(maxX, v.x);
+                maxY = Math.max(maxY, v.y);
+            }
+        }
+        out[0] = minX;
+        out[1] = minY;
+        out[2] = maxX;
+        out[3] = maxY;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%stype: %s %s with color: %s\n" +
+                "origin: %s, end: %s, text: %s\n" +
+                "hasVertices: %b\n",
+                isFilled ? "filled " : "", lineThickness, type, color, origin, endPoint,
+            Objects.equals(text, "") ? "No Text" : text, !vertices.isEmpty());
+    }
+}
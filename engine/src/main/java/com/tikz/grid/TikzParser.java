@@ -0,0 +1,739 @@
+package com.tikz.grid;
+
+import com.tikz.ColorHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass parser for the TikZ subset this program writes. It reads commands, option lists,
+ * coordinates and node bodies straight from the input without building intermediate strings.
+ * Only the text of nodes and error messages allocate strings.
+ * <p>
+ * Statements end at a ';', at the next command or at the end of the input, so semicolons are optional
+ * and a path may span several lines. A '%' starts a comment that runs to the end of the line.
+ */
+public class TikzParser {
+    // Largest distance in cm, before scaling, between the two quadratic control points a cubic can imply
+    private static final float QUADRATIC_TOLERANCE = 1e-3f;
+
+    private final float scale;
+    private final float cos;
+    private final float sin;
+
+    private CharSequence src;
+    private int pos;
+    private int end;
+    private int statementStart;
+    private List<TikType> out;
+
+    // style of the current statement
+    private boolean filled;
+    private boolean dashed;
+    private boolean frontArrow;
+    private boolean backArrow;
+    private DrawType.LineThickness lineThickness;
+    private ColorHolder color;
+
+    // points of the current path in flat (x, y) pairs
+    private float[] path = new float[64];
+    private int pathSize;
+    private boolean connected;
+    // the current path continues a curve, so its start gets no arrow
+    private boolean continued;
+    // last curve of the current path, its front arrow moves on if the path goes on
+    private TikType lastCurve;
+    private float subpathX;
+    private float subpathY;
+
+    // last coordinate read by readCoordinate
+    private float x;
+    private float y;
+
+    /**
+     * @param scale       How much to scale the output by
+     * @param rotationDeg How much to rotate the output by in degrees
+     */
+    public TikzParser(float scale, float rotationDeg) {
+        this.scale = scale;
+        double radians = Math.toRadians(rotationDeg);
+        this.cos = rotationDeg == 0 ? 1 : (float) Math.cos(radians);
+        this.sin = rotationDeg == 0 ? 0 : (float) Math.sin(radians);
+    }
+
+    public ArrayList<TikType> parse(CharSequence tik) throws IllegalDrawType, NumberFormatException, ImportFromTikz.IllegalUnitType {
+        ArrayList<TikType> points = new ArrayList<>();
+        parse(tik, 0, tik.length(), points);
+        return points;
+    }
+
+    /**
+     * Parses the Tikz code between start and end and appends the shapes in source order
+     *
+     * @param tik   tikz code
+     * @param start first character to parse
+     * @param end   end of the range, exclusive
+     * @param out   where the parsed shapes are added
+     * @throws IllegalDrawType       Unknown Draw Code
+     * @throws NumberFormatException Malformed Vector or number
+     * @throws ImportFromTikz.IllegalUnitType Unknown unit
+     */
+    public void parse(CharSequence tik, int start, int end, List<TikType> out) throws IllegalDrawType, NumberFormatException,
+        ImportFromTikz.IllegalUnitType {
+        this.src = tik;
+        this.pos = start;
+        this.end = end;
+        this.out = out;
+        try {
+            while (skipWhitespace()) {
+                statementStart = pos;
+                char c = src.charAt(pos);
+                if (c == '\\') {
+                    int nameStart = ++pos;
+                    while (pos < end && isLetter(src.charAt(pos))) pos++;
+                    if (regionEquals(nameStart, pos, "draw")) {
+                        statement(false);
+                    } else if (regionEquals(nameStart, pos, "filldraw") || regionEquals(nameStart, pos, "fill")) {
+                        statement(true);
+                    } else if (regionEquals(nameStart, pos, "node")) {
+                        resetStyle(false);
+                        node();
+                        path();
+                    } else {
+                        skipUnknownCommand();
+                    }
+                } else if (c == '(' || c == '[') {
+                    // Paths without a command are drawn as if they started with \draw
+                    statement(false);
+                } else {
+                    pos++;
+                }
+            }
+        } finally {
+            this.src = null;
+            this.out = null;
+        }
+    }
+
+    /**
+     * Parses a list of vectors with one vector per line, e.g. "(1, 2)", "1, 2" or "1 2".
+     *
+     * @param vectorInput List of vectors
+     * @return Multi-Line going through every vector
+     * @throws NumberFormatException Malformed Vector
+     */
+    public TikType parseVectors(CharSequence vectorInput) throws NumberFormatException {
+        ArrayList<Vec2> vectors = new ArrayList<>();
+        this.src = vectorInput;
+        this.end = vectorInput.length();
+        try {
+            int lineStart = 0;
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && src.charAt(lineEnd) != '\n') lineEnd++;
+                pos = lineStart;
+                skipSpaces(lineEnd);
+                if (pos < lineEnd && src.charAt(pos) == '(') pos++;
+                skipSpaces(lineEnd);
+                if (pos < lineEnd) {
+                    float vx = readNumber(lineEnd);
+                    skipSpaces(lineEnd);
+                    if (pos < lineEnd && src.charAt(pos) == ',') pos++;
+                    skipSpaces(lineEnd);
+                    float vy = readNumber(lineEnd);
+                    skipSpaces(lineEnd);
+                    if (pos < lineEnd && src.charAt(pos) == ')') pos++;
+                    skipSpaces(lineEnd);
+                    if (Float.isNaN(vx) || Float.isNaN(vy) || pos != lineEnd) {
+                        throw new NumberFormatException("Malformed Vector " + src.subSequence(lineStart, lineEnd).toString().trim());
+                    }
+                    vectors.add(transform(vx, vy));
+                }
+                lineStart = lineEnd + 1;
+            }
+        } finally {
+            this.src = null;
+        }
+        return new TikType(vectors, DrawType.MULTI_LINE);
+    }
+
+    private void statement(boolean isFilled) throws ImportFromTikz.IllegalUnitType {
+        resetStyle(isFilled);
+        path();
+    }
+
+    private void resetStyle(boolean isFilled) {
+        filled = isFilled;
+        dashed = false;
+        frontArrow = false;
+        backArrow = false;
+        lineThickness = DrawType.LineThickness.THIN;
+        color = ColorHolder.DEFAULT_COLORS[0];
+        pathSize = 0;
+        connected = false;
+        continued = false;
+        lastCurve = null;
+    }
+
+    private void path() throws ImportFromTikz.IllegalUnitType {
+        while (true) {
+            if (!skipWhitespace()) {
+                flushPath();
+                return;
+            }
+            char c = src.charAt(pos);
+            if (c == ';') {
+                pos++;
+                flushPath();
+                return;
+            } else if (c == '\\') {
+                // The next command starts a new statement
+                flushPath();
+                return;
+            } else if (c == '[') {
+                options();
+            } else if (c == '(') {
+                readCoordinate();
+                // A coordinate that isn't joined by -- starts a new path
+                if (!connected && pathSize > 0) {
+                    flushPath();
+                }
+                addPathPoint(x, y);
+                connected = false;
+            } else if (c == '-' && pos + 1 < end && src.charAt(pos + 1) == '-') {
+                pos += 2;
+                connected = true;
+                if (lastCurve != null) {
+                    lastCurve.frontArrow = false;
+                    lastCurve = null;
+                }
+            } else if (c == '.' && pos + 1 < end && src.charAt(pos + 1) == '.') {
+                pos += 2;
+                curve();
+            } else if (isLetter(c)) {
+                int wordStart = pos;
+                while (pos < end && isLetter(src.charAt(pos))) pos++;
+                if (regionEquals(wordStart, pos, "cycle")) {
+                    if (pathSize > 0) addPathPoint(subpathX, subpathY);
+                    connected = false;
+                } else if (regionEquals(wordStart, pos, "circle")) {
+                    circle();
+                } else if (regionEquals(wordStart, pos, "node")) {
+                    node();
+                } else if (regionEquals(wordStart, pos, "arc")) {
+                    throw new IllegalDrawType("Arcs are unable to be rendered as they are unpredictable: " + statementText());
+                } else {
+                    throw invalidCommand();
+                }
+            } else {
+                throw invalidCommand();
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of a curve such as (a) .. controls (b) and (c) .. (d) after the first ".."
+     */
+    private void curve() throws ImportFromTikz.IllegalUnitType {
+        if (pathSize == 0) throw invalidCommand();
+        float startX = path[pathSize * 2 - 2];
+        float startY = path[pathSize * 2 - 1];
+
+        skipWhitespace();
+        int wordStart = pos;
+        while (pos < end && isLetter(src.charAt(pos))) pos++;
+        if (!regionEquals(wordStart, pos, "controls")) throw invalidCommand();
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != '(') throw invalidCommand();
+        readCoordinate();
+        Vec2 first = new Vec2(x, y);
+        // TikZ uses a single control point for both ends
+        Vec2 second = first.cpy();
+        skipWhitespace();
+        wordStart = pos;
+        while (pos < end && isLetter(src.charAt(pos))) pos++;
+        if (regionEquals(wordStart, pos, "and")) {
+            skipWhitespace();
+            if (pos >= end || src.charAt(pos) != '(') throw invalidCommand();
+            readCoordinate();
+            second = new Vec2(x, y);
+            skipWhitespace();
+        } else if (wordStart != pos) {
+            throw invalidCommand();
+        }
+        if (pos + 1 >= end || src.charAt(pos) != '.' || src.charAt(pos + 1) != '.') throw invalidCommand();
+        pos += 2;
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != '(') throw invalidCommand();
+        readCoordinate();
+
+        // the straight part of the path before the curve ends here, without the front arrow
+        boolean startsPath = pathSize == 1 && !continued;
+        if (pathSize > 1) {
+            boolean pathFrontArrow = frontArrow;
+            frontArrow = false;
+            flushPath();
+            frontArrow = pathFrontArrow;
+        }
+        if (lastCurve != null) {
+            lastCurve.frontArrow = false;
+        }
+
+        Vec2 start = new Vec2(startX, startY);
+        Vec2 endPoint = new Vec2(x, y);
+        TikType tikType;
+        // A quadratic curve is written as the cubic with these control points, so turn it back into one
+        Vec2 quadratic = first.cpy().scl(3).sub(start).scl(0.5f);
+        Vec2 quadraticEnd = second.cpy().scl(3).sub(endPoint).scl(0.5f);
+        if (quadratic.dst(quadraticEnd) <= QUADRATIC_TOLERANCE * scale) {
+            tikType = new TikType(start, endPoint, DrawType.BEZIER, quadratic.add(quadraticEnd).scl(0.5f));
+        } else {
+            tikType = new TikType(start, endPoint, DrawType.BEZIER, first, second);
+        }
+        tikType.dashed = dashed;
+        tikType.frontArrow = frontArrow;
+        tikType.backArrow = backArrow && startsPath;
+        tikType.color = color.clone();
+        tikType.lineThickness = lineThickness;
+        out.add(tikType);
+
+        pathSize = 0;
+        continued = true;
+        addPathPoint(x, y);
+        connected = false;
+        lastCurve = tikType;
+    }
+
+    private void circle() throws ImportFromTikz.IllegalUnitType {
+        if (pathSize == 0) throw invalidCommand();
+        float cx = path[pathSize * 2 - 2];
+        float cy = path[pathSize * 2 - 1];
+        // (a, b) circle(2.0cm); the center only belongs to the path if it was joined to something
+        if (pathSize == 1) pathSize = 0;
+        flushPath();
+
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != '(') throw invalidCommand();
+        pos++;
+        skipWhitespace();
+        float radius = readNumber(end);
+        if (Float.isNaN(radius) || radius < 0) throw invalidCommand();
+        skipWhitespace();
+        float conversion = readUnit();
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != ')') throw invalidCommand();
+        pos++;
+
+        radius = radius / conversion * scale;
+        Vec2 loc = new Vec2(cx, cy);
+        TikType tikType = new TikType(loc, loc.cpy().add(radius, 0), DrawType.CIRCLE);
+        tikType.dashed = dashed;
+        tikType.color = color.clone();
+        tikType.isFilled = filled;
+        tikType.lineThickness = lineThickness;
+        out.add(tikType);
+    }
+
+    private void node() throws ImportFromTikz.IllegalUnitType {
+        skipWhitespace();
+        ColorHolder pathColor = color;
+        boolean pathDashed = dashed;
+        boolean pathFrontArrow = frontArrow;
+        boolean pathBackArrow = backArrow;
+        DrawType.LineThickness pathThickness = lineThickness;
+        if (pos < end && src.charAt(pos) == '[') {
+            options();
+            skipWhitespace();
+        }
+
+        Vec2 loc;
+        if (pos + 1 < end && src.charAt(pos) == 'a' && src.charAt(pos + 1) == 't'
+            && (pos + 2 >= end || !isLetter(src.charAt(pos + 2)))) {
+            pos += 2;
+            skipWhitespace();
+            if (pos >= end || src.charAt(pos) != '(') throw invalidCommand();
+            readCoordinate();
+            loc = new Vec2(x, y);
+            skipWhitespace();
+        } else if (pathSize > 0) {
+            loc = new Vec2(path[pathSize * 2 - 2], path[pathSize * 2 - 1]);
+        } else {
+            throw invalidCommand();
+        }
+
+        if (pos >= end || src.charAt(pos) != '{') throw invalidCommand();
+        int bodyStart = ++pos;
+        int depth = 1;
+        while (pos < end) {
+            char c = src.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+                continue;
+            }
+            if (c == '{') depth++;
+            else if (c == '}' && --depth == 0) break;
+            pos++;
+        }
+        if (pos >= end) throw invalidCommand();
+        String content = src.subSequence(bodyStart, pos).toString();
+        pos++;
+
+        TikType tikType = new TikType(loc, DrawType.TEXT, content);
+        tikType.color = color.clone();
+        out.add(tikType);
+        // Node options only apply to the node
+        color = pathColor;
+        dashed = pathDashed;
+        frontArrow = pathFrontArrow;
+        backArrow = pathBackArrow;
+        lineThickness = pathThickness;
+    }
+
+    private void flushPath() {
+        if (pathSize == 2) {
+            TikType tikType = new TikType(new Vec2(path[0], path[1]), new Vec2(path[2], path[3]), DrawType.LINE);
+            tikType.dashed = dashed;
+            tikType.frontArrow = frontArrow;
+            tikType.backArrow = backArrow && !continued;
+            tikType.color = color.clone();
+            tikType.lineThickness = lineThickness;
+            out.add(tikType);
+        } else if (pathSize > 2) {
+            ArrayList<Vec2> vector2Array = new ArrayList<>(pathSize);
+            for (int i = 0; i < pathSize; i++) {
+                vector2Array.add(new Vec2(path[i * 2], path[i * 2 + 1]));
+            }
+            TikType tikType = new TikType(vector2Array, DrawType.MULTI_LINE);
+            tikType.dashed = dashed;
+            tikType.frontArrow = frontArrow;
+            tikType.backArrow = backArrow && !continued;
+            tikType.color = color.clone();
+            tikType.isFilled = filled;
+            tikType.lineThickness = lineThickness;
+            out.add(tikType);
+        }
+        pathSize = 0;
+        connected = false;
+        continued = false;
+        lastCurve = null;
+    }
+
+    private void addPathPoint(float px, float py) {
+        if (pathSize == 0 && !continued) {
+            subpathX = px;
+            subpathY = py;
+        }
+        if (path.length < pathSize * 2 + 2) {
+            float[] grown = new float[path.length * 2];
+            System.arraycopy(path, 0, grown, 0, pathSize * 2);
+            path = grown;
+        }
+        path[pathSize * 2] = px;
+        path[pathSize * 2 + 1] = py;
+        pathSize++;
+    }
+
+    /**
+     * Reads an option list such as [color = red!50, dashed, ->, thick] and applies it to the current style
+     */
+    private void options() {
+        pos++;
+        while (pos < end) {
+            skipWhitespace();
+            int optionStart = pos;
+            int equals = -1;
+            int depth = 0;
+            while (pos < end) {
+                char c = src.charAt(pos);
+                if (c == '{') depth++;
+                else if (c == '}') depth--;
+                else if (depth == 0 && (c == ',' || c == ']')) break;
+                else if (depth == 0 && c == '=' && equals < 0) equals = pos;
+                pos++;
+            }
+            int optionEnd = trimEnd(optionStart, pos);
+            if (equals >= 0) {
+                int keyEnd = trimEnd(optionStart, equals);
+                int valueStart = equals + 1;
+                while (valueStart < optionEnd && isSpace(src.charAt(valueStart))) valueStart++;
+                if (regionEquals(optionStart, keyEnd, "color")) {
+                    color(valueStart, optionEnd);
+                }
+            } else if (optionStart < optionEnd) {
+                option(optionStart, optionEnd);
+            }
+            if (pos >= end) break;
+            if (src.charAt(pos++) == ']') return;
+        }
+        throw invalidCommand();
+    }
+
+    private void option(int start, int end) {
+        if (regionEquals(start, end, "ultra thin")) {
+            lineThickness = DrawType.LineThickness.ULTRA_THIN;
+        } else if (regionEquals(start, end, "very thin")) {
+            lineThickness = DrawType.LineThickness.VERY_THIN;
+        } else if (regionEquals(start, end, "thin")) {
+            lineThickness = DrawType.LineThickness.THIN;
+        } else if (regionEquals(start, end, "thick")) {
+            lineThickness = DrawType.LineThickness.THICK;
+        } else if (regionEquals(start, end, "very thick")) {
+            lineThickness = DrawType.LineThickness.VERY_THICK;
+        } else if (regionEquals(start, end, "ultra thick")) {
+            lineThickness = DrawType.LineThickness.ULTRA_THICK;
+        } else if (regionContains(start, end, "dashed")) {
+            dashed = true;
+        } else if (regionContains(start, end, ">") || regionContains(start, end, "<")) {
+            frontArrow |= regionContains(start, end, ">");
+            backArrow |= regionContains(start, end, "<");
+        } else {
+            // TikZ also accepts a bare color, e.g. [red!50]
+            color(start, end);
+        }
+    }
+
+    private void color(int start, int end) {
+        int nameEnd = start;
+        while (nameEnd < end && isLetter(src.charAt(nameEnd))) nameEnd++;
+        for (ColorHolder holder : ColorHolder.DEFAULT_COLORS) {
+            if (regionEqualsIgnoreCase(start, nameEnd, holder.name)) {
+                color = holder;
+                if (nameEnd < end && src.charAt(nameEnd) == '!') {
+                    int saved = pos;
+                    pos = nameEnd + 1;
+                    float percent = readNumber(end);
+                    pos = saved;
+                    if (!Float.isNaN(percent)) {
+                        color = holder.clone();
+                        color.percentValue = percent / 100f;
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads a coordinate such as (1.5, -2) and stores the scaled and rotated point in x and y
+     */
+    private void readCoordinate() throws ImportFromTikz.IllegalUnitType {
+        int start = pos;
+        pos++;
+        skipWhitespace();
+        float vx = readNumber(end);
+        if (Float.isNaN(vx)) throw malformedVector(start);
+        skipWhitespace();
+        vx /= readUnit();
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != ',') throw malformedVector(start);
+        pos++;
+        skipWhitespace();
+        float vy = readNumber(end);
+        if (Float.isNaN(vy)) throw malformedVector(start);
+        skipWhitespace();
+        vy /= readUnit();
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != ')') throw malformedVector(start);
+        pos++;
+
+        vx *= scale;
+        vy *= scale;
+        x = vx * cos - vy * sin;
+        y = vx * sin + vy * cos;
+    }
+
+    private Vec2 transform(float vx, float vy) {
+        vx *= scale;
+        vy *= scale;
+        return new Vec2(vx * cos - vy * sin, vx * sin + vy * cos);
+    }
+
+    /**
+     * Reads a decimal number, e.g. -1.25 or 3e-2
+     *
+     * @param limit end of the readable range
+     * @return the number, or NaN if there is no number at the current position
+     */
+    private float readNumber(int limit) {
+        int start = pos;
+        boolean negative = false;
+        if (pos < limit && (src.charAt(pos) == '-' || src.charAt(pos) == '+')) {
+            negative = src.charAt(pos) == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fraction = false;
+        while (pos < limit) {
+            char c = src.charAt(pos);
+            if (isDigit(c)) {
+                digits++;
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) significant++;
+                    if (fraction) exponent--;
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        // a lone sign or point is not a number
+        if (digits == 0) {
+            pos = start;
+            return Float.NaN;
+        }
+        if (pos + 1 < limit && (src.charAt(pos) == 'e' || src.charAt(pos) == 'E')) {
+            int exponentStart = pos + 1;
+            boolean negativeExponent = src.charAt(exponentStart) == '-';
+            if (negativeExponent || src.charAt(exponentStart) == '+') exponentStart++;
+            if (exponentStart < limit && isDigit(src.charAt(exponentStart))) {
+                pos = exponentStart;
+                int value = 0;
+                while (pos < limit && isDigit(src.charAt(pos))) {
+                    if (value < 10000) value = value * 10 + (src.charAt(pos) - '0');
+                    pos++;
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+        }
+
+        if (significant >= 18 || exponent < -22 || exponent > 22) {
+            return (float) Double.parseDouble(src.subSequence(start, pos).toString());
+        }
+        // exact powers of ten keep this correctly rounded
+        double result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return (float) (negative ? -result : result);
+    }
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Reads an optional unit after a length
+     *
+     * @return how many of the unit make up a centimeter, 1 if there is no unit
+     * @throws ImportFromTikz.IllegalUnitType Unknown unit
+     */
+    private float readUnit() throws ImportFromTikz.IllegalUnitType {
+        int start = pos;
+        while (pos < end && isLetter(src.charAt(pos))) pos++;
+        if (start == pos) return 1;
+        if (pos - start == 2) {
+            float conversion = ImportFromTikz.getConversion(src.charAt(start), src.charAt(start + 1));
+            if (conversion > 0) return conversion;
+        }
+        throw new ImportFromTikz.IllegalUnitType("Unexpected Unit Type: " + src.subSequence(start, pos));
+    }
+
+    private void skipUnknownCommand() {
+        // skip arguments of commands such as \begin{tikzpicture}[scale=2] up to the next command or statement
+        int depth = 0;
+        while (pos < end) {
+            char c = src.charAt(pos);
+            if (c == '{') depth++;
+            else if (c == '}') depth--;
+            else if (depth <= 0 && c == '\\') return;
+            else if (depth <= 0 && c == ';') {
+                pos++;
+                return;
+            } else if (c == '%') {
+                skipComment();
+                continue;
+            }
+            pos++;
+        }
+    }
+
+    /**
+     * Skips whitespace and comments
+     *
+     * @return true if there is anything left to read
+     */
+    private boolean skipWhitespace() {
+        while (pos < end) {
+            char c = src.charAt(pos);
+            if (c == '%') {
+                skipComment();
+            } else if (isSpace(c)) {
+                pos++;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void skipComment() {
+        while (pos < end && src.charAt(pos) != '\n') pos++;
+    }
+
+    private void skipSpaces(int limit) {
+        while (pos < limit && isSpace(src.charAt(pos))) pos++;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && isSpace(src.charAt(end - 1))) end--;
+        return end;
+    }
+
+    private boolean regionEquals(int start, int end, String word) {
+        if (end - start != word.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (src.charAt(start + i) != word.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean regionEqualsIgnoreCase(int start, int end, String word) {
+        if (end - start != word.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(src.charAt(start + i)) != Character.toLowerCase(word.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private boolean regionContains(int start, int end, String word) {
+        for (int i = start; i <= end - word.length(); i++) {
+            if (regionEquals(i, i + word.length(), word)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private String statementText() {
+        int lineEnd = pos;
+        while (lineEnd < end && src.charAt(lineEnd) != '\n' && src.charAt(lineEnd) != ';') lineEnd++;
+        return src.subSequence(statementStart, lineEnd).toString().trim();
+    }
+
+    private IllegalDrawType invalidCommand() {
+        return new IllegalDrawType(String.format("Error: '%s' is not a valid command understood by this program!" +
+            "\n\t(Commands could not be parsed)\n", statementText()));
+    }
+
+    private NumberFormatException malformedVector(int start) {
+        int close = start;
+        while (close < end && src.charAt(close) != ')' && src.charAt(close) != '\n') close++;
+        return new NumberFormatException("Malformed Vector: " + src.subSequence(start, Math.min(close + 1, end)));
+    }
+}
@@ -0,0 +1,289 @@
+package com.tikz.grid;
+
+import com.tikz.ColorHolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams TikZ code for shapes to an {@link Appendable}. Numbers are written with a fixed precision
+ * regardless of the default locale, and the option list of each style combination is built once and
+ * reused, so writing a shape does not allocate.
+ */
+public class TikzWriter {
+    /** Decimal places written for coordinates, trailing zeros are trimmed */
+    public static final int COORDINATE_PRECISION = 4;
+    /** Largest distance between a bezier curve above degree three and its exported cubic pieces, in cm */
+    public static final float BEZIER_TOLERANCE = 0.01f;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private final Appendable out;
+    private final char[] digits = new char[20];
+    private final CubicSplitter cubics = new CubicSplitter();
+
+    // open addressed map from a packed style key to its option list, e.g. "[color = red, dashed]"
+    private int[] styleKeys = new int[64];
+    private String[] styleModifiers = new String[64];
+    private int styleCount = 0;
+
+    public TikzWriter(Appendable out) {
+        this.out = out;
+    }
+
+    public TikzWriter writeAll(Iterable<TikType> tikzShapes) throws IOException {
+        for (TikType tik : tikzShapes) {
+            write(tik);
+        }
+        return this;
+    }
+
+    /**
+     * Writes every shape of a store, reading them one at a time into a single shape
+     */
+    public TikzWriter writeAll(ShapeStore shapes) throws IOException {
+        TikType tik = new TikType(new Vec2(), new Vec2(), DrawType.LINE);
+        for (int i = 0; i < shapes.size(); i++) {
+            write(shapes.get(i, tik));
+        }
+        return this;
+    }
+
+    public TikzWriter write(TikType tik) throws IOException {
+        String extraCommands = getModifiers(tik);
+
+        switch (tik.type) {
+            case LINE:
+                out.append("\\draw").append(extraCommands).append(' ');
+                appendPoint(tik.origin.x, tik.origin.y);
+                out.append(" -- ");
+                appendPoint(tik.endPoint.x, tik.endPoint.y);
+                out.append(";\n");
+                break;
+            case TEXT:
+                out.append("\\draw").append(extraCommands).append(" node at ");
+                appendPoint(tik.origin.x, tik.origin.y);
+                out.append(" {").append(tik.text).append("};\n");
+                break;
+            case CIRCLE:
+                out.append(tik.isFilled ? "\\filldraw" : "\\draw").append(extraCommands).append(' ');
+                appendPoint(tik.origin.x, tik.origin.y);
+                out.append(" circle(");
+                appendFixed(out, tik.origin.dst(tik.endPoint), 2, false, digits);
+                out.append(" cm);\n");
+                break;
+            case MULTI_LINE:
+                out.append(tik.isFilled ? "\\filldraw" : "\\draw").append(extraCommands).append(' ');
+                for (int i = 0; i < tik.vertices.size(); i++) {
+                    if (i > 0) out.append("--");
+                    Vec2 vertex = tik.vertices.get(i);
+                    appendPoint(vertex.x, vertex.y);
+                }
+                out.append(";\n");
+                break;
+            case BEZIER:
+                int count = cubics.split(tik, BEZIER_TOLERANCE);
+                float[] pieces = cubics.pieces();
+                out.append("\\draw").append(extraCommands).append(' ');
+                appendPoint(tik.origin.x, tik.origin.y);
+                for (int i = 0; i < count * 6; i += 6) {
+                    out.append(" .. controls ");
+                    appendPoint(pieces[i], pieces[i + 1]);
+                    out.append(" and ");
+                    appendPoint(pieces[i + 2], pieces[i + 3]);
+                    out.append(" .. ");
+                    appendPoint(pieces[i + 4], pieces[i + 5]);
+                }
+                out.append(";\n");
+                break;
+            default:
+                throw new IllegalDrawType("Unexpected DrawType: " + tik.type);
+        }
+        return this;
+    }
+
+    private void appendPoint(float x, float y) throws IOException {
+        out.append('(');
+        appendFixed(out, x, COORDINATE_PRECISION, true, digits);
+        out.append(',');
+        appendFixed(out, y, COORDINATE_PRECISION, true, digits);
+        out.append(')');
+    }
+
+    /**
+     * Writes a number with a fixed number of decimals using '.' as the separator in every locale.
+     * Values too large for a fixed point representation fall back to {@link Float#toString(float)}.
+     *
+     * @param out      where to write the number
+     * @param value    number to write
+     * @param decimals decimal places, between 1 and 6
+     * @param trim     removes trailing zeros while keeping at least one decimal
+     */
+    public static void appendFixed(Appendable out, float value, int decimals, boolean trim) throws IOException {
+        appendFixed(out, value, decimals, trim, new char[20]);
+    }
+
+    private static void appendFixed(Appendable out, float value, int decimals, boolean trim, char[] digits) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value) || Math.abs(value) >= 1e12f) {
+            out.append(Float.toString(value));
+            return;
+        }
+        long power = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(Math.abs((double) value) * power);
+        if (value < 0 && scaled != 0) {
+            out.append('-');
+        }
+
+        long fraction = scaled % power;
+        int fractionDigits = decimals;
+        if (trim) {
+            while (fractionDigits > 1 && fraction % 10 == 0) {
+                fraction /= 10;
+                fractionDigits--;
+            }
+        }
+
+        // digits are filled from the back: fraction, point, then the integer part
+        int pos = digits.length;
+        for (int i = 0; i < fractionDigits; i++) {
+            digits[--pos] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        digits[--pos] = '.';
+        long whole = scaled / power;
+        do {
+            digits[--pos] = (char) ('0' + whole % 10);
+            whole /= 10;
+        } while (whole != 0);
+
+        for (int i = pos; i < digits.length; i++) {
+            out.append(digits[i]);
+        }
+    }
+
+    private String getModifiers(TikType tik) {
+        int key = styleKey(tik);
+        if (key < 0) {
+            return combineModifiers(tik);
+        }
+
+        int mask = styleKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (styleModifiers[slot] != null) {
+            if (styleKeys[slot] == key) return styleModifiers[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        String modifiers = combineModifiers(tik);
+        styleKeys[slot] = key;
+        styleModifiers[slot] = modifiers;
+        if (++styleCount * 2 > styleKeys.length) {
+            growStyles();
+        }
+        return modifiers;
+    }
+
+    /**
+     * Packs everything that changes the option list of a shape into an int
+     *
+     * @return packed style or -1 if the style can't be cached
+     */
+    private static int styleKey(TikType tik) {
+        int colorIndex = -1;
+        for (int i = 0; i < ColorHolder.DEFAULT_COLORS.length; i++) {
+            if (ColorHolder.DEFAULT_COLORS[i].name.equalsIgnoreCase(tik.color.name)) {
+                colorIndex = i;
+                break;
+            }
+        }
+        // 1.0 and 0.5 are matched exactly by the option list so they get their own codes
+        float percent = tik.color.percentValue;
+        int weight;
+        if (percent == 1.0f) {
+            weight = 127;
+        } else if (percent == 0.5f) {
+            weight = 126;
+        } else {
+            weight = Math.round(percent * 100);
+            if (weight < 0 || weight > 125) weight = -1;
+        }
+        if (colorIndex < 0 || weight < 0) {
+            return -1;
+        }
+
+        int kind = tik.type == DrawType.TEXT ? 0 : tik.type == DrawType.CIRCLE ? 1 : 2;
+        int arrows = (tik.frontArrow ? 1 : 0) | (tik.backArrow ? 2 : 0);
+        return colorIndex
+            | weight << 8
+            | (tik.dashed ? 1 : 0) << 15
+            | arrows << 16
+            | tik.lineThickness.ordinal() << 18
+            | kind << 22;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void growStyles() {
+        int[] oldKeys = styleKeys;
+        String[] oldModifiers = styleModifiers;
+        styleKeys = new int[oldKeys.length * 2];
+        styleModifiers = new String[oldKeys.length * 2];
+        int mask = styleKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldModifiers[i] == null) continue;
+            int slot = mix(oldKeys[i]) & mask;
+            while (styleModifiers[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            styleKeys[slot] = oldKeys[i];
+            styleModifiers[slot] = oldModifiers[i];
+        }
+    }
+
+    private static String combineModifiers(TikType tik) {
+        List<String> modifiersArray = getModifierList(tik);
+        if (modifiersArray.isEmpty()) {
+            return "";
+        }
+        return "[" + String.join(", ", modifiersArray) + "]";
+    }
+
+    private static List<String> getModifierList(TikType tik) {
+        List<String> modifiersArray = new ArrayList<>();
+
+        if(!tik.color.name.equalsIgnoreCase("black") || tik.color.percentValue != 1.0f) {
+            if (tik.color.name.equalsIgnoreCase("black") && tik.color.percentValue == 0.5f) {
+                modifiersArray.add("color = gray");
+            }
+            else {
+                modifiersArray.add("color = " + tik.color + (tik.color.percentValue != 1.0f ? ("!" + Math.round(tik.color.percentValue * 100)) : ""));
+            }
+        }
+
+        if(tik.type == DrawType.TEXT) {
+            return modifiersArray;
+        }
+
+        if (tik.dashed) {
+            modifiersArray.add("dashed");
+        }
+
+        if (tik.type != DrawType.CIRCLE) {
+            if (tik.frontArrow && !tik.backArrow) {
+                modifiersArray.add("->");
+            } else if (!tik.frontArrow && tik.backArrow) {
+                modifiersArray.add("<-");
+            } else if (tik.frontArrow) {
+                modifiersArray.add("<->");
+            }
+        }
+
+        if(tik.lineThickness != DrawType.LineThickness.THIN) {
+            modifiersArray.add(tik.lineThickness.toString().toLowerCase().replaceAll("_", " "));
+        }
+        return modifiersArray;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tikz.grid;
+
+/**
+ * A mutable 2D point in grid units. Mirrors the parts of libGDX's {@code Vector2} the converters need,
+ * so the engine can run without libGDX on the classpath.
+ */
+public class Vec2 {
+    public float x;
+    public float y;
+
+    public Vec2() {
+    }
+
+    public Vec2(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public Vec2(Vec2 v) {
+        set(v);
+    }
+
+    public Vec2 cpy() {
+        return new Vec2(this);
+    }
+
+    public Vec2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public Vec2 set(Vec2 v) {
+        return set(v.x, v.y);
+    }
+
+    public Vec2 add(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+
+    public Vec2 add(Vec2 v) {
+        return add(v.x, v.y);
+    }
+
+    public Vec2 sub(float x, float y) {
+        this.x -= x;
+        this.y -= y;
+        return this;
+    }
+
+    public Vec2 sub(Vec2 v) {
+        return sub(v.x, v.y);
+    }
+
+    public Vec2 scl(float scalar) {
+        x *= scalar;
+        y *= scalar;
+        return this;
+    }
+
+    public float len() {
+        return (float) Math.sqrt(x * x + y * y);
+    }
+
+    public float dst(Vec2 v) {
+        return (float) Math.sqrt(dst2(v));
+    }
+
+    public float dst2(Vec2 v) {
+        final float dx = v.x - x;
+        final float dy = v.y - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Rotates the point counter-clockwise around the origin
+     *
+     * @param degrees angle in degrees
+     * @return this point for chaining
+     */
+    public Vec2 rotateDeg(float degrees) {
+        if (degrees == 0) return this;
+        double radians = Math.toRadians(degrees);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        return set(x * cos - y * sin, x * sin + y * cos);
+    }
+
+    /**
+     * Parses a point in the form {@code (x,y)}, the same format {@link #toString()} produces.
+     *
+     * @param v string to parse
+     * @return this point for chaining
+     * @throws NumberFormatException Malformed Vector
+     */
+    public Vec2 fromString(String v) throws NumberFormatException {
+        int s = v.indexOf(',', 1);
+        if (s != -1 && v.charAt(0) == '(' && v.charAt(v.length() - 1) == ')') {
+            return set(Float.parseFloat(v.substring(1, s)), Float.parseFloat(v.substring(s + 1, v.length() - 1)));
+        }
+        throw new NumberFormatException("Malformed Vector: " + v);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Vec2)) return false;
+        Vec2 other = (Vec2) obj;
+        return Float.floatToIntBits(x) == Float.floatToIntBits(other.x)
+            && Float.floatToIntBits(y) == Float.floatToIntBits(other.y);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Float.floatToIntBits(x) + Float.floatToIntBits(y);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + "," + y + ")";
+    }
+}
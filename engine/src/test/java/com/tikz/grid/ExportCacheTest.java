@@ -0,0 +1,106 @@
+package com.tikz.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExportCacheTest {
+    private final Random random = new Random(11);
+    private final ShapeStore document = new ShapeStore();
+    private final History history = new History(1000, Long.MAX_VALUE);
+    private final ExportCache export = new ExportCache();
+
+    @Test
+    void exportMatchesFullExportAfterEveryKindOfEdit() {
+        for (TikType tik : TestShapes.random(random, 100)) {
+            add(tik);
+        }
+        assertExport();
+
+        add(TestShapes.random(random));
+        assertExport();
+
+        undo();
+        assertExport();
+        redo();
+        assertExport();
+
+        ShapeStore replacement = new ShapeStore();
+        replacement.addAll(TestShapes.random(random, 40));
+        replace(replacement);
+        assertExport();
+        undo();
+        assertExport();
+        redo();
+        assertExport();
+
+        replace(new ShapeStore());
+        assertExport();
+    }
+
+    @Test
+    void randomEditsMatchFullExport() {
+        for (int step = 0; step < 3000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                add(TestShapes.random(random));
+            } else if (action < 6) {
+                ShapeStore replacement = new ShapeStore();
+                replacement.addAll(TestShapes.random(random, random.nextInt(30)));
+                replace(replacement);
+            } else if (action < 8) {
+                if (history.canUndo()) undo();
+            } else {
+                if (history.canRedo()) redo();
+            }
+            assertExport();
+        }
+    }
+
+    @Test
+    void writeStreamsTheWholeDocument() throws IOException {
+        for (TikType tik : TestShapes.random(random, 2000)) {
+            add(tik);
+        }
+        StringWriter output = new StringWriter();
+        export.write(document, output);
+        assertEquals(ExportToTikz.convert(document), output.toString());
+    }
+
+    private void assertExport() {
+        assertEquals(ExportToTikz.convert(document), export.convert(document));
+    }
+
+    // the edits report their changes to the cache like the editor does
+
+    private void add(TikType tik) {
+        document.add(tik);
+        history.recordAdd();
+        export.shapesChanged(document.size() - 1);
+    }
+
+    private void replace(ShapeStore replacement) {
+        history.replace(document, replacement);
+        export.shapesChanged(0);
+    }
+
+    private void undo() {
+        if (history.peekUndo() == History.Command.ADD) {
+            int last = document.size() - 1;
+            history.undo(document);
+            export.shapesChanged(last);
+        } else {
+            history.undo(document);
+            export.shapesChanged(0);
+        }
+    }
+
+    private void redo() {
+        history.redo(document);
+        export.shapesChanged(history.peekUndo() == History.Command.ADD ? document.size() - 1 : 0);
+    }
+}
@@ -0,0 +1,171 @@
+package com.tikz.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryTest {
+    private final Random random = new Random(5);
+    private final ShapeStore document = new ShapeStore();
+
+    @Test
+    void undoAndRedoAddedShapes() {
+        History history = new History(100, Long.MAX_VALUE);
+        List<TikType> shapes = TestShapes.random(random, 10);
+        for (TikType tik : shapes) {
+            add(history, tik);
+        }
+
+        for (int i = shapes.size(); i > 0; i--) {
+            assertEquals(History.Command.ADD, history.peekUndo());
+            assertEquals(History.Command.ADD, history.undo(document));
+            assertEquals(ExportToTikz.convert(shapes.subList(0, i - 1)), ExportToTikz.convert(document));
+        }
+        assertFalse(history.canUndo());
+        assertNull(history.peekUndo());
+        assertThrows(IllegalStateException.class, () -> history.undo(document));
+
+        for (int i = 1; i <= shapes.size(); i++) {
+            assertEquals(History.Command.ADD, history.redo(document));
+            assertEquals(ExportToTikz.convert(shapes.subList(0, i)), ExportToTikz.convert(document));
+        }
+        assertFalse(history.canRedo());
+        assertThrows(IllegalStateException.class, () -> history.redo(document));
+    }
+
+    @Test
+    void undoAndRedoReplacedDocuments() {
+        History history = new History(100, Long.MAX_VALUE);
+        List<TikType> before = TestShapes.random(random, 30);
+        for (TikType tik : before) {
+            add(history, tik);
+        }
+        List<TikType> imported = TestShapes.random(random, 50);
+        ShapeStore replacement = new ShapeStore();
+        replacement.addAll(imported);
+
+        history.replace(document, replacement);
+        assertEquals(ExportToTikz.convert(imported), ExportToTikz.convert(document));
+        // clearing is replacing with an empty document
+        history.replace(document, new ShapeStore());
+        assertTrue(document.isEmpty());
+
+        assertEquals(History.Command.REPLACE, history.undo(document));
+        assertEquals(ExportToTikz.convert(imported), ExportToTikz.convert(document));
+        assertEquals(History.Command.REPLACE, history.undo(document));
+        assertEquals(ExportToTikz.convert(before), ExportToTikz.convert(document));
+        assertEquals(History.Command.ADD, history.peekUndo());
+
+        assertEquals(History.Command.REPLACE, history.redo(document));
+        assertEquals(History.Command.REPLACE, history.redo(document));
+        assertTrue(document.isEmpty());
+    }
+
+    @Test
+    void aNewEditForgetsTheUndoneEdits() {
+        History history = new History(100, Long.MAX_VALUE);
+        List<TikType> shapes = TestShapes.random(random, 5);
+        for (TikType tik : shapes) {
+            add(history, tik);
+        }
+        history.undo(document);
+        history.undo(document);
+        assertTrue(history.canRedo());
+
+        TikType branch = TestShapes.random(random);
+        add(history, branch);
+        assertFalse(history.canRedo());
+        assertNull(history.peekRedo());
+        List<TikType> expected = new ArrayList<>(shapes.subList(0, 3));
+        expected.add(branch);
+        assertEquals(ExportToTikz.convert(expected), ExportToTikz.convert(document));
+
+        history.undo(document);
+        history.redo(document);
+        assertEquals(ExportToTikz.convert(expected), ExportToTikz.convert(document));
+    }
+
+    @Test
+    void theOldestEditsAreForgottenPastTheCapacity() {
+        History history = new History(5, Long.MAX_VALUE);
+        for (TikType tik : TestShapes.random(random, 8)) {
+            add(history, tik);
+        }
+        int undone = 0;
+        while (history.canUndo()) {
+            history.undo(document);
+            undone++;
+        }
+        assertEquals(5, undone);
+        assertEquals(3, document.size());
+    }
+
+    @Test
+    void theOldestDocumentsAreForgottenPastTheBudget() {
+        ShapeStore sample = new ShapeStore();
+        sample.addAll(TestShapes.random(random, 1000));
+        long budget = sample.getMemoryBytes() * 3;
+        History history = new History(100, budget);
+
+        for (int i = 0; i < 10; i++) {
+            ShapeStore replacement = new ShapeStore();
+            replacement.addAll(TestShapes.random(random, 1000));
+            history.replace(document, replacement);
+            assertTrue(history.getBytes() <= budget, () -> history.getBytes() + " bytes over " + budget);
+        }
+        int undone = 0;
+        while (history.canUndo()) {
+            history.undo(document);
+            undone++;
+        }
+        assertTrue(undone > 0 && undone < 10, undone + " documents kept");
+    }
+
+    @Test
+    void randomEditsMatchSnapshots() {
+        History history = new History(50, Long.MAX_VALUE);
+        // every state of the document, the current one is states[current]
+        List<String> states = new ArrayList<>();
+        states.add(ExportToTikz.convert(document));
+        int current = 0;
+        for (int step = 0; step < 3000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                add(history, TestShapes.random(random));
+            } else if (action < 6) {
+                ShapeStore replacement = new ShapeStore();
+                replacement.addAll(TestShapes.random(random, random.nextInt(20)));
+                history.replace(document, replacement);
+            } else if (action < 8) {
+                if (history.canUndo()) {
+                    history.undo(document);
+                    assertEquals(states.get(--current), ExportToTikz.convert(document));
+                }
+                continue;
+            } else {
+                if (history.canRedo()) {
+                    history.redo(document);
+                    assertEquals(states.get(++current), ExportToTikz.convert(document));
+                }
+                continue;
+            }
+            // an edit forgets the states after the current one
+            states.subList(current + 1, states.size()).clear();
+            states.add(ExportToTikz.convert(document));
+            current++;
+        }
+    }
+
+    private void add(History history, TikType tik) {
+        document.add(tik);
+        history.recordAdd();
+    }
+}
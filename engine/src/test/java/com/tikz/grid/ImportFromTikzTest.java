@@ -0,0 +1,52 @@
+package com.tikz.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ImportFromTikzTest {
+    /**
+     * Tikz code with nodes whose text spans many lines, which end in ';' and start with a command like the
+     * statements around them
+     */
+    private static String document(int length) {
+        StringBuilder tik = new StringBuilder();
+        for (int i = 0; tik.length() < length; i++) {
+            tik.append("\\draw (").append(i).append(".0,0.0) -- (").append(i).append(".0,1.0);\n");
+            tik.append("\\draw node at (").append(i).append(".0,2.0) {first line;\n");
+            for (int line = 0; line < 20; line++) {
+                tik.append("\\frac{").append(line).append("}{2};\n");
+            }
+            tik.append("\\textbf{last}};\n");
+        }
+        return tik.toString();
+    }
+
+    @Test
+    void boundaryIsNotInsideANode() {
+        String tik = document(1);
+        int boundary = ImportFromTikz.nextStatementBoundary(tik, 0, tik.indexOf("\\frac"));
+        assertEquals(tik.length(), boundary);
+
+        String twice = tik + tik;
+        boundary = ImportFromTikz.nextStatementBoundary(twice, 0, tik.indexOf("\\frac"));
+        assertEquals(tik.length(), boundary);
+    }
+
+    @Test
+    void parallelImportMatchesSequential() throws ImportFromTikz.IllegalUnitType {
+        String tik = document(ImportFromTikz.PARALLEL_CHUNK_SIZE * 5);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        ForkJoinPool sequential = new ForkJoinPool(1);
+        try {
+            String expected = ExportToTikz.convert(ImportFromTikz.FromTikToPoints(tik, 1f, 0f));
+            assertEquals(expected, ExportToTikz.convert(ImportFromTikz.FromTikToStore(tik, 1f, 0f, sequential)));
+            assertEquals(expected, ExportToTikz.convert(ImportFromTikz.FromTikToStore(tik, 1f, 0f, parallel)));
+        } finally {
+            parallel.shutdown();
+            sequential.shutdown();
+        }
+    }
+}
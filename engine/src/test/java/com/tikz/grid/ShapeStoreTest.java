@@ -0,0 +1,145 @@
+package com.tikz.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShapeStoreTest {
+    private final Random random = new Random(3);
+    private final TikType out = new TikType(new Vec2(), new Vec2(), DrawType.LINE);
+
+    @Test
+    void shapesRoundTrip() {
+        List<TikType> shapes = TestShapes.random(random, 2000);
+        ShapeStore store = new ShapeStore();
+        for (int i = 0; i < shapes.size(); i++) {
+            assertEquals(i, store.add(shapes.get(i)));
+        }
+
+        assertEquals(shapes.size(), store.size());
+        for (int i = 0; i < shapes.size(); i++) {
+            TikType expected = shapes.get(i);
+            store.get(i, out);
+            assertSameShape(expected, out);
+            assertEquals(expected.type, store.getType(i));
+            assertEquals(expected.type == DrawType.TEXT ? expected.text : "", store.getText(i));
+            assertEquals(expected.color.name, store.getColor(i).name);
+            if (expected.type != DrawType.MULTI_LINE) {
+                assertEquals(expected.origin.x, store.getOriginX(i));
+                assertEquals(expected.origin.y, store.getOriginY(i));
+            }
+        }
+        assertEquals(ExportToTikz.convert(shapes), ExportToTikz.convert(store));
+    }
+
+    @Test
+    void laterChangesToAShapeDontChangeTheStore() {
+        TikType tik = TestShapes.random(random, DrawType.MULTI_LINE);
+        String expected = ExportToTikz.convert(List.of(tik));
+        ShapeStore store = new ShapeStore();
+        store.add(tik);
+        tik.vertices.get(0).add(1, 1);
+        tik.color.name = "Red";
+        assertEquals(expected, ExportToTikz.convert(store));
+    }
+
+    @Test
+    void readingReusesTheVerticesOfTheShape() {
+        ShapeStore store = new ShapeStore();
+        TikType polygon = TestShapes.random(random, DrawType.MULTI_LINE);
+        store.add(polygon);
+        TikType line = TestShapes.random(random, DrawType.LINE);
+        store.add(line);
+
+        store.get(0, out);
+        Vec2 first = out.vertices.get(0);
+        store.get(1, out);
+        assertTrue(out.vertices.isEmpty());
+        store.get(0, out);
+        assertSameShape(polygon, out);
+        assertSame(first, out.vertices.get(0));
+    }
+
+    @Test
+    void readingDetachesTheCachedTessellation() {
+        ShapeStore store = new ShapeStore();
+        store.add(TestShapes.random(random, DrawType.LINE));
+        store.add(TestShapes.random(random, DrawType.LINE));
+
+        Tessellation first = store.get(0, out).getTessellation(10, 1, 1);
+        store.get(1, out);
+        assertNull(out.tessellation);
+        // the tessellation of the first shape can still be cached by whoever keeps it
+        assertTrue(first.matches(10, 1, 1));
+    }
+
+    @Test
+    void addAllMergesTheColorsAndTexts() {
+        List<TikType> first = TestShapes.random(random, 300);
+        List<TikType> second = TestShapes.random(random, 300);
+        ShapeStore store = new ShapeStore();
+        store.addAll(first);
+        ShapeStore other = new ShapeStore();
+        other.addAll(second);
+
+        store.addAll(other);
+        List<TikType> both = new ArrayList<>(first);
+        both.addAll(second);
+        assertEquals(ExportToTikz.convert(both), ExportToTikz.convert(store));
+    }
+
+    @Test
+    void swapExchangesTheShapes() {
+        List<TikType> first = TestShapes.random(random, 200);
+        List<TikType> second = TestShapes.random(random, 50);
+        ShapeStore a = new ShapeStore();
+        a.addAll(first);
+        ShapeStore b = new ShapeStore();
+        b.addAll(second);
+
+        a.swap(b);
+        assertEquals(second.size(), a.size());
+        assertEquals(first.size(), b.size());
+        assertEquals(ExportToTikz.convert(second), ExportToTikz.convert(a));
+        assertEquals(ExportToTikz.convert(first), ExportToTikz.convert(b));
+
+        // both stores keep working on their new arrays and tables
+        TikType tik = TestShapes.random(random);
+        a.add(tik);
+        second = new ArrayList<>(second);
+        second.add(tik);
+        assertEquals(ExportToTikz.convert(second), ExportToTikz.convert(a));
+    }
+
+    @Test
+    void removeLastDropsTheLastShape() {
+        List<TikType> shapes = new ArrayList<>(TestShapes.random(random, 20));
+        ShapeStore store = new ShapeStore();
+        store.addAll(shapes);
+        store.removeLast();
+        shapes.remove(shapes.size() - 1);
+        assertEquals(ExportToTikz.convert(shapes), ExportToTikz.convert(store));
+
+        store.clear();
+        assertTrue(store.isEmpty());
+        assertThrows(IllegalStateException.class, store::removeLast);
+    }
+
+    private static void assertSameShape(TikType expected, TikType actual) {
+        assertEquals(expected.type, actual.type);
+        assertEquals(ExportToTikz.convert(List.of(expected)), ExportToTikz.convert(List.of(actual)));
+        if (expected.type == DrawType.MULTI_LINE || expected.type == DrawType.BEZIER) {
+            assertEquals(expected.vertices, actual.vertices);
+        } else {
+            assertTrue(actual.vertices.isEmpty());
+        }
+    }
+}
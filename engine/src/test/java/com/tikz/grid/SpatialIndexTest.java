@@ -0,0 +1,68 @@
+package com.tikz.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SpatialIndexTest {
+    private final Random random = new Random(7);
+
+    @Test
+    void queryMatchesBruteForce() {
+        List<TikType> shapes = TestShapes.random(random, 3000);
+        SpatialIndex index = new SpatialIndex(4f);
+        index.addAll(shapes);
+        for (int i = 0; i < 500; i++) {
+            assertQuery(index, shapes);
+        }
+    }
+
+    @Test
+    void queryMatchesBruteForceAfterRemovingShapes() {
+        List<TikType> shapes = new ArrayList<>(TestShapes.random(random, 1000));
+        SpatialIndex index = new SpatialIndex(4f);
+        index.addAll(shapes);
+        for (int i = 0; i < 400; i++) {
+            index.removeLast();
+            shapes.remove(shapes.size() - 1);
+        }
+        for (int i = 0; i < 200; i++) {
+            TikType tik = TestShapes.random(random);
+            index.add(tik);
+            shapes.add(tik);
+        }
+        for (int i = 0; i < 500; i++) {
+            assertQuery(index, shapes);
+        }
+    }
+
+    /**
+     * Queries a random rectangle, from smaller than a cell to larger than the whole document
+     */
+    private void assertQuery(SpatialIndex index, List<TikType> shapes) {
+        float size = (float) Math.pow(2, random.nextInt(10) - 2);
+        float minX = random.nextFloat() * 120 - 60;
+        float minY = random.nextFloat() * 120 - 60;
+        float maxX = minX + size * random.nextFloat() * 2;
+        float maxY = minY + size * random.nextFloat() * 2;
+
+        float[] bounds = new float[4];
+        int[] expected = new int[shapes.size()];
+        int count = 0;
+        for (int id = 0; id < shapes.size(); id++) {
+            shapes.get(id).getBounds(bounds);
+            if (bounds[0] <= maxX && bounds[2] >= minX && bounds[1] <= maxY && bounds[3] >= minY) {
+                expected[count++] = id;
+            }
+        }
+
+        int found = index.query(minX, minY, maxX, maxY);
+        assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(index.results(), found),
+            () -> "query " + minX + ", " + minY + ", " + maxX + ", " + maxY);
+    }
+}
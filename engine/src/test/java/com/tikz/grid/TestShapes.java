@@ -0,0 +1,78 @@
+package com.tikz.grid;
+
+import com.tikz.ColorHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random shapes for the tests. Coordinates are multiples of a quarter and circles have whole radii, so the
+ * shapes are written to Tikz without rounding.
+ */
+final class TestShapes {
+    private static final DrawType[] TYPES = {DrawType.LINE, DrawType.CIRCLE, DrawType.MULTI_LINE, DrawType.BEZIER,
+        DrawType.TEXT};
+    private static final String[] TEXTS = {"a", "label", "$x^2$", "$\\frac{a}{b}$"};
+    private static final float[] PERCENTS = {1f, 0.5f, 0.25f};
+
+    private TestShapes() {
+    }
+
+    static TikType random(Random random) {
+        return random(random, TYPES[random.nextInt(TYPES.length)]);
+    }
+
+    static TikType random(Random random, DrawType type) {
+        Vec2 origin = point(random);
+        TikType tik;
+        switch (type) {
+            case CIRCLE:
+                tik = new TikType(origin, origin.cpy().add(1 + random.nextInt(5), 0), DrawType.CIRCLE);
+                tik.isFilled = random.nextBoolean();
+                break;
+            case MULTI_LINE:
+                ArrayList<Vec2> vertices = new ArrayList<>();
+                // two vertices are imported as a line
+                for (int i = 3 + random.nextInt(6); i > 0; i--) {
+                    vertices.add(point(random));
+                }
+                tik = new TikType(vertices, DrawType.MULTI_LINE);
+                tik.isFilled = random.nextBoolean();
+                break;
+            case BEZIER:
+                tik = new TikType(origin, point(random), DrawType.BEZIER, point(random), point(random));
+                break;
+            case TEXT:
+                tik = new TikType(origin, DrawType.TEXT, TEXTS[random.nextInt(TEXTS.length)]);
+                break;
+            default:
+                tik = new TikType(origin, point(random), DrawType.LINE);
+                break;
+        }
+        ColorHolder color = ColorHolder.DEFAULT_COLORS[random.nextInt(ColorHolder.DEFAULT_COLORS.length)].clone();
+        color.percentValue = PERCENTS[random.nextInt(PERCENTS.length)];
+        tik.color = color;
+        if (type != DrawType.TEXT) {
+            tik.dashed = random.nextBoolean();
+            tik.lineThickness = DrawType.LineThickness.values()[random.nextInt(DrawType.LineThickness.values().length)];
+        }
+        if (type == DrawType.LINE || type == DrawType.MULTI_LINE || type == DrawType.BEZIER) {
+            tik.frontArrow = random.nextBoolean();
+            tik.backArrow = random.nextBoolean();
+        }
+        return tik;
+    }
+
+    static List<TikType> random(Random random, int count) {
+        List<TikType> shapes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shapes.add(random(random));
+        }
+        return shapes;
+    }
+
+    private static Vec2 point(Random random) {
+        return new Vec2((random.nextInt(400) - 200) / 4f, (random.nextInt(400) - 200) / 4f);
+    }
+}
@@ -0,0 +1,55 @@
+package com.tikz.grid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TikzParserTest {
+    @Test
+    void writerOutputRoundTrips() throws ImportFromTikz.IllegalUnitType {
+        List<TikType> shapes = TestShapes.random(new Random(1), 2000);
+        String tik = ExportToTikz.convert(shapes);
+
+        ArrayList<TikType> parsed = ImportFromTikz.FromTikToPoints(tik, 1f, 0f);
+        assertEquals(shapes.size(), parsed.size());
+        assertEquals(tik, ExportToTikz.convert(parsed));
+        for (int i = 0; i < shapes.size(); i++) {
+            assertEquals(shapes.get(i).type, parsed.get(i).type);
+        }
+    }
+
+    @Test
+    void curveControlsRoundTrip() throws ImportFromTikz.IllegalUnitType {
+        TikType curve = new TikType(new Vec2(0, 0), new Vec2(3, 0), DrawType.BEZIER, new Vec2(1, 1.5f),
+            new Vec2(2, -1.25f));
+        String tik = ExportToTikz.convert(List.of(curve));
+        assertEquals("\\draw (0.0,0.0) .. controls (1.0,1.5) and (2.0,-1.25) .. (3.0,0.0);\n", tik);
+
+        TikType parsed = ImportFromTikz.FromTikToPoints(tik, 1f, 0f).get(0);
+        assertEquals(DrawType.BEZIER, parsed.type);
+        assertEquals(curve.origin, parsed.origin);
+        assertEquals(curve.endPoint, parsed.endPoint);
+        assertEquals(curve.vertices, parsed.vertices);
+    }
+
+    @Test
+    void scaleAndRotationApplyToCurveControls() throws ImportFromTikz.IllegalUnitType {
+        String tik = "\\draw (1,0) .. controls (0,1) and (-1,0) .. (0,-1);";
+        TikType parsed = ImportFromTikz.FromTikToPoints(tik, 2f, 90f).get(0);
+        assertEquals(DrawType.BEZIER, parsed.type);
+        // counterclockwise, like the rotation of the vector import
+        assertNear(new Vec2(0, 2), parsed.origin);
+        assertNear(new Vec2(-2, 0), parsed.vertices.get(0));
+        assertNear(new Vec2(0, -2), parsed.vertices.get(1));
+        assertNear(new Vec2(2, 0), parsed.endPoint);
+    }
+
+    private static void assertNear(Vec2 expected, Vec2 actual) {
+        assertEquals(expected.x, actual.x, 1e-4f, () -> "x of " + actual);
+        assertEquals(expected.y, actual.y, 1e-4f, () -> "y of " + actual);
+    }
+}
@@ -1,8 +1,11 @@
 package com.tikz.lwjgl3;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
 import com.tikz.Main;
+import com.tikz.ProgramState;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
@@ -30,6 +33,20 @@ public class Lwjgl3Launcher {
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
         configuration.setWindowedMode(1200, 800);
+        //// With on demand rendering nothing is drawn while idle, and the main loop polls for events at the
+        //// idle rate. Unfocused windows stop drawing for held keys and only redraw for events.
+        configuration.setWindowListener(new Lwjgl3WindowAdapter() {
+            @Override
+            public void focusLost() {
+                ProgramState.windowFocused = false;
+            }
+
+            @Override
+            public void focusGained() {
+                ProgramState.windowFocused = true;
+                Gdx.graphics.requestRendering();
+            }
+        });
         //// You can change these files; they are in lwjgl3/src/main/resources/ .
         configuration.setWindowIcon("libgdx128.png", "libgdx64.png", "libgdx32.png", "libgdx16.png");
         return configuration;